@@ -1,9 +1,15 @@
 package com.nvlad.yii2support.common;
 
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Key;
 import com.intellij.psi.PsiElement;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
 import com.intellij.util.ArrayUtil;
 import com.jetbrains.php.PhpIndex;
+import com.jetbrains.php.lang.PhpLanguage;
 import com.jetbrains.php.lang.documentation.phpdoc.psi.PhpDocProperty;
 import com.jetbrains.php.lang.documentation.phpdoc.psi.tags.PhpDocTag;
 import com.jetbrains.php.lang.psi.elements.*;
@@ -13,9 +19,13 @@ import com.jetbrains.php.lang.psi.resolve.types.PhpType;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -23,6 +33,22 @@ import java.util.regex.Pattern;
  * Created by NVlad on 11.01.2017.
  */
 public class ClassUtils {
+    private static final Key<CachedValue<Map<String, Boolean>>> inheritanceCacheKey = Key.create("Yii2Support.ClassInheritance");
+    private static final Set<String> cachedSuperClasses = new HashSet<>(Arrays.asList(
+            "\\yii\\base\\Controller",
+            "\\yii\\web\\Controller",
+            "\\yii\\base\\View",
+            "\\yii\\base\\Widget",
+            "\\yii\\mail\\BaseMailer",
+            "\\yii\\db\\BaseActiveRecord",
+            "\\yii\\db\\ActiveRecord",
+            "\\yii\\db\\ActiveQuery",
+            "\\yii\\db\\Query",
+            "\\yii\\db\\Command",
+            "\\yii\\db\\Connection",
+            "\\yii\\db\\Migration"
+    ));
+
     public static int getParamIndex(Method method, String[] paramNames) {
         for (String name : paramNames) {
             final int index = getParamIndex(method, name);
@@ -146,12 +172,45 @@ public class ClassUtils {
     }
 
     public static boolean isClassInheritsOrEqual(PhpClass classObject, String className, PhpIndex index) {
+        if (classObject != null && cachedSuperClasses.contains(className)) {
+            return isClassInheritsOrEqualCached(classObject, className, () -> ClassUtils.getClass(index, className));
+        }
+
         PhpClass phpClass = ClassUtils.getClass(index, className);
 
         return isClassInheritsOrEqual(classObject, phpClass, 100);
     }
 
     public static boolean isClassInheritsOrEqual(PhpClass classObject, PhpClass superClass, int recursionLimit) {
+        if (classObject != null && superClass != null && cachedSuperClasses.contains(superClass.getFQN())) {
+            return isClassInheritsOrEqualCached(classObject, superClass.getFQN(), () -> superClass);
+        }
+
+        return isClassInheritsOrEqualUncached(classObject, superClass, recursionLimit);
+    }
+
+    /**
+     * Results are cached on the class element, classes sharing one FQN (e.g. duplicated vendor copies) may have
+     * different parents.
+     */
+    private static boolean isClassInheritsOrEqualCached(@NotNull PhpClass classObject, @NotNull String superClassFQN, Supplier<PhpClass> superClass) {
+        final Project project = classObject.getProject();
+        final Map<String, Boolean> superClasses = CachedValuesManager.getManager(project).getCachedValue(classObject,
+                inheritanceCacheKey,
+                () -> CachedValueProvider.Result.create(new ConcurrentHashMap<String, Boolean>(),
+                        PsiModificationTracker.SERVICE.getInstance(project).forLanguage(PhpLanguage.INSTANCE)),
+                false);
+
+        Boolean result = superClasses.get(superClassFQN);
+        if (result == null) {
+            result = isClassInheritsOrEqualUncached(classObject, superClass.get(), 100);
+            superClasses.put(superClassFQN, result);
+        }
+
+        return result;
+    }
+
+    private static boolean isClassInheritsOrEqualUncached(PhpClass classObject, PhpClass superClass, int recursionLimit) {
         if (classObject == null || superClass == null) {
             return false;
         }
@@ -162,7 +221,28 @@ public class ClassUtils {
         if (recursionLimit < 1)
             return false;
 
-        return isClassInheritsOrEqual(classObject.getSuperClass(), superClass, recursionLimit--);
+        return isClassInheritsOrEqualUncached(classObject.getSuperClass(), superClass, recursionLimit - 1);
+    }
+
+    /**
+     * Checks interfaces implemented by the class and its parents, including interfaces extended by them.
+     */
+    public static boolean isClassImplements(PhpClass classObject, String interfaceFQN, int recursionLimit) {
+        if (classObject == null || recursionLimit < 1) {
+            return false;
+        }
+
+        if (classObject.isInterface() && classObject.getFQN().equals(interfaceFQN)) {
+            return true;
+        }
+
+        for (PhpClass phpInterface : classObject.getImplementedInterfaces()) {
+            if (isClassImplements(phpInterface, interfaceFQN, recursionLimit - 1)) {
+                return true;
+            }
+        }
+
+        return isClassImplements(classObject.getSuperClass(), interfaceFQN, recursionLimit - 1);
     }
 
     public static boolean isClassInherit(PhpClass classObject, String parentClassName, PhpIndex index) {
@@ -10,22 +10,23 @@ import com.intellij.openapi.editor.Document;
 import com.intellij.openapi.project.Project;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.util.PsiTreeUtil;
-import com.intellij.util.containers.JBIterable;
+import com.jetbrains.php.PhpIndex;
 import com.jetbrains.php.lang.documentation.phpdoc.psi.PhpDocComment;
 import com.jetbrains.php.lang.documentation.phpdoc.psi.PhpDocProperty;
 import com.jetbrains.php.lang.documentation.phpdoc.psi.tags.PhpDocPropertyTag;
 import com.jetbrains.php.lang.psi.elements.*;
-import com.jetbrains.php.lang.psi.elements.impl.ClassConstImpl;
-import com.jetbrains.php.lang.psi.elements.impl.StringLiteralExpressionImpl;
-import com.nvlad.yii2support.database.TableInfo;
+import com.nvlad.yii2support.database.TableSchemaCache;
+import com.nvlad.yii2support.database.entities.ActiveRecordTable;
+import com.nvlad.yii2support.database.index.ActiveRecordTableIndex;
 import com.nvlad.yii2support.utils.Yii2SupportSettings;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.LinkedHashSet;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -41,48 +42,29 @@ public class DatabaseUtils {
 
     @Nullable
     public static ArrayList<LookupElementBuilder> getLookupItemsByTable(String table, Project project, PhpExpression position) {
+        return getLookupItemsByTable(table, project, position, TableSchemaCache.getInstance(project));
+    }
+
+    @Nullable
+    public static ArrayList<LookupElementBuilder> getLookupItemsByTable(String table, Project project, PhpExpression position, TableSchemaCache schema) {
         ArrayList<LookupElementBuilder> list = new ArrayList<>();
         if (table == null || table.isEmpty())
             return list;
 
-        DbPsiFacade facade = DbPsiFacade.getInstance(project);
-        List<DbDataSource> dataSources = facade.getDataSources();
-
-        // Code to test tests :)
-        //dataSources.clear();
-        //dataSources.add(new TestDataSource(project));
-
         String prefixedTable = AddTablePrefix(table, true, project);
 
-        for (DbDataSource source : dataSources) {
-            for (Object item : source.getModel().traverser().filter(DasTable.class)) {
-                if (item instanceof DasTable && (((DasTable) item).getName().equals(prefixedTable) || ((DasTable) item).getName().equals(table))) {
-                    TableInfo tableInfo = new TableInfo((DasTable) item);
-                    for (DasColumn column : tableInfo.getColumns()) {
-                        list.add(DatabaseUtils.buildLookup(column, true, project));
-                    }
-                }
+        for (DasTable dasTable : schema.findTables(prefixedTable, table)) {
+            for (DasColumn column : schema.getColumns(dasTable)) {
+                list.add(DatabaseUtils.buildLookup(column, true, project));
             }
         }
         return list;
     }
 
     public static ArrayList<LookupElementBuilder> getLookupItemsTables(Project project, PhpExpression position) {
-        DbPsiFacade facade = DbPsiFacade.getInstance(project);
-        List<DbDataSource> dataSources = facade.getDataSources();
-
-        // Code to test tests :)
-        //dataSources.clear();
-        //dataSources.add(new TestDataSource(project));
-
         ArrayList<LookupElementBuilder> list = new ArrayList<>();
-        for (DbDataSource source : dataSources) {
-            JBIterable<DasTable> filtered = source.getModel().traverser().filter(DasTable.class);
-             for (Object item : filtered) {
-                if (item instanceof DasTable) {
-                    list.add(DatabaseUtils.buildLookup(item, true, project));
-                }
-            }
+        for (DasTable table : TableSchemaCache.getInstance(project).getTables()) {
+            list.add(DatabaseUtils.buildLookup(table, true, project));
         }
         return list;
     }
@@ -106,17 +88,51 @@ public class DatabaseUtils {
     }
 
     public static String[] extractParamsFromCondition(String condition, boolean includeColon) {
-        LinkedHashSet<String> matches = new LinkedHashSet<>();
-        String pattern = "(?<![:\\[])(:[^\\W\\d]\\w+)";
-        Pattern r = Pattern.compile(pattern);
-        Matcher m = r.matcher(condition);
-        while (m.find()) {
-            String param = m.group(1);
-            if (! includeColon)
-                param = param.replace(":", "");
-            matches.add(param);
+        return SqlParameterScanner.getParameters(condition, includeColon);
+    }
+
+    /**
+     * Returns SQL text of condition argument, string literals are unescaped and other parts of concatenation
+     * are replaced with spaces.
+     */
+    @NotNull
+    public static String getConditionByElement(PsiElement element) {
+        if (element instanceof StringLiteralExpression) {
+            return unescapeStringLiteral((StringLiteralExpression) element);
+        }
+
+        if (element instanceof ConcatenationExpression) {
+            StringBuilder builder = new StringBuilder();
+            for (StringLiteralExpression literal : PsiTreeUtil.findChildrenOfType(element, StringLiteralExpression.class)) {
+                if (builder.length() > 0) {
+                    builder.append(' ');
+                }
+                builder.append(unescapeStringLiteral(literal));
+            }
+
+            return builder.toString();
         }
-        return matches.toArray(new String[0]);
+
+        return "";
+    }
+
+    private static String unescapeStringLiteral(StringLiteralExpression literal) {
+        String contents = literal.getContents();
+        if (contents.indexOf('\\') == -1) {
+            return contents;
+        }
+
+        char quote = literal.isSingleQuote() ? '\'' : '"';
+        StringBuilder builder = new StringBuilder(contents.length());
+        for (int i = 0; i < contents.length(); i++) {
+            char c = contents.charAt(i);
+            if (c == '\\' && i + 1 < contents.length() && (contents.charAt(i + 1) == quote || contents.charAt(i + 1) == '\\')) {
+                c = contents.charAt(++i);
+            }
+            builder.append(c);
+        }
+
+        return builder.toString();
     }
 
     public static String RemoveTablePrefix(String table, Project project) {
@@ -208,38 +224,84 @@ public class DatabaseUtils {
         return builder;
     }
 
+    /**
+     * Resolves table of ActiveRecord class by "tableName()" declarations from ActiveRecordTableIndex,
+     * class hierarchy is walked up to the nearest declaration.
+     */
     @Nullable
     public static String getTableByActiveRecordClass(PhpClass phpClass) {
-        Method method = phpClass.findMethodByName("tableName");
-        if (method != null) {
-            Collection<PhpReturn> returns = PsiTreeUtil.findChildrenOfType(method, PhpReturn.class);
-            for (PhpReturn element : returns) {
-                if ((element).getChildren().length > 0) {
-                    if ((element).getChildren()[0] instanceof ClassConstantReference) {
-                        PsiElement resolved = ((ClassConstantReference) (element).getChildren()[0]).resolve();
-                        if (resolved instanceof ClassConstImpl) {
-                            ClassConstImpl constant = (ClassConstImpl) resolved;
-                            if (constant.getChildren().length > 0) {
-                                String table =  ((StringLiteralExpressionImpl) constant.getChildren()[0]).getContents();
-                                return AddTablePrefix(table, false, phpClass.getProject());
-                            }
-                        }
-
-                    } else if ((element).getChildren()[0] instanceof StringLiteralExpression) {
-                        String table = (element).getChildren()[0].getText();
-                        return AddTablePrefix(table, false, phpClass.getProject());
-                    }
+        final Project project = phpClass.getProject();
+        String table = StringUtils.CamelToId(phpClass.getName());
+        PhpClass currentClass = phpClass;
+        int limit = 50;
+        while (currentClass != null && limit-- > 0) {
+            if (currentClass.getFQN().equals("\\yii\\db\\ActiveRecord")) {
+                table = "{{%" + table + "}}";
+                break;
+            }
+
+            final ActiveRecordTable activeRecordTable = ActiveRecordTableIndex.getTable(currentClass);
+            if (activeRecordTable != null && activeRecordTable.kind != ActiveRecordTable.Kind.Undeclared) {
+                final String declaredTable = resolveActiveRecordTable(activeRecordTable, project);
+                if (declaredTable != null) {
+                    table = declaredTable;
                 }
+                break;
             }
+
+            currentClass = currentClass.getSuperClass();
         }
 
-        String table = StringUtils.CamelToId(phpClass.getName());
-        if (method != null
-                && method.getContainingClass() != null
-                && method.getContainingClass().getFQN().equals("\\yii\\db\\ActiveRecord")) {
-            table = "{{%" + table + "}}";
+        return AddTablePrefix(table, false, project);
+    }
+
+    /**
+     * Returns Yii connection component id returned by nearest "getDb()" declaration, null for default connection.
+     */
+    @Nullable
+    public static String getConnectionByActiveRecordClass(PhpClass phpClass) {
+        PhpClass currentClass = phpClass;
+        int limit = 50;
+        while (currentClass != null && limit-- > 0) {
+            if (currentClass.getFQN().equals("\\yii\\db\\ActiveRecord")) {
+                return null;
+            }
+
+            final ActiveRecordTable activeRecordTable = ActiveRecordTableIndex.getTable(currentClass);
+            if (activeRecordTable != null && activeRecordTable.connection != null) {
+                return activeRecordTable.connection;
+            }
+
+            currentClass = currentClass.getSuperClass();
+        }
+
+        return null;
+    }
+
+    /**
+     * Returns tables of the connection used by ActiveRecord class.
+     */
+    @NotNull
+    public static TableSchemaCache getSchemaByActiveRecordClass(PhpClass phpClass) {
+        return TableSchemaCache.getInstance(phpClass.getProject(), getConnectionByActiveRecordClass(phpClass));
+    }
+
+    @Nullable
+    private static String resolveActiveRecordTable(ActiveRecordTable activeRecordTable, Project project) {
+        switch (activeRecordTable.kind) {
+            case Literal:
+                return activeRecordTable.value;
+            case Constant:
+                for (PhpClass constantClass : PhpIndex.getInstance(project).getClassesByFQN(activeRecordTable.constantClass)) {
+                    final Field constant = constantClass.findFieldByName(activeRecordTable.value, true);
+                    if (constant != null && constant.getDefaultValue() instanceof StringLiteralExpression) {
+                        return ((StringLiteralExpression) constant.getDefaultValue()).getContents();
+                    }
+                }
+                return null;
+            default:
+                return null;
         }
-        return AddTablePrefix(table, false, phpClass.getProject());
     }
 
     public static String clearTablePrefixTags(String str) {
@@ -277,62 +339,54 @@ public class DatabaseUtils {
     }
 
     public static boolean isTableExists(String table, Project project) {
+        return isTableExists(table, TableSchemaCache.getInstance(project));
+    }
+
+    public static boolean isTableExists(String table, TableSchemaCache schema) {
         if(table == null)
             return false;
-        DbPsiFacade facade = DbPsiFacade.getInstance(project);
-        List<DbDataSource> dataSources = facade.getDataSources();
         table = ClassUtils.removeQuotes(table);
 
-        for (DbDataSource source : dataSources) {
-            for (Object item : source.getModel().traverser().filter(DasTable.class)) {
-                if (item instanceof DasTable && ((DasTable) item).getName().equals(table)) {
-                   return true;
-                }
-            }
-        }
-        return false;
+        return !schema.findTables(table).isEmpty();
     }
 
     public static ArrayList<String> getColumnsByTable(String table, Project project) {
-        String prefixedTable = AddTablePrefix(table, true, project);
-
-        DbPsiFacade facade = DbPsiFacade.getInstance(project);
-        List<DbDataSource> dataSources = facade.getDataSources();
+        return getColumnsByTable(table, project, TableSchemaCache.getInstance(project));
+    }
 
+    public static ArrayList<String> getColumnsByTable(String table, Project project, TableSchemaCache schema) {
         ArrayList<String> list = new ArrayList<>();
         if(table == null)
             return list;
-        table = ClassUtils.removeQuotes(prefixedTable);
-        for (DbDataSource source : dataSources) {
-            for (Object item : source.getModel().traverser().filter(DasTable.class)) {
-
-                if (item instanceof DasTable && ((DasTable) item).getName().equals(prefixedTable)) {
-                    TableInfo tableInfo = new TableInfo((DasTable) item);
-                    for (DasColumn column : tableInfo.getColumns()) {
-                        list.add(ClassUtils.removeQuotes(column.getName()));
-                    }
-                }
+        String prefixedTable = AddTablePrefix(table, true, project);
+
+        for (DasTable dasTable : schema.findTables(prefixedTable)) {
+            for (DasColumn column : schema.getColumns(dasTable)) {
+                list.add(ClassUtils.removeQuotes(column.getName()));
             }
         }
         return list;
     }
 
-    public static boolean isPropertyUsed(PhpDocProperty property, ArrayList<String> columns, PhpClass phpClass) {
+    public static boolean isPropertyUsed(PhpDocProperty property, Collection<String> columns, PhpClass phpClass) {
         if (property == null)
             return true;
 
-        for (String column : columns)
-            if (column.equals(property.getName()))
-                return true;
+        if (columns.contains(property.getName()))
+            return true;
 
         return ClassUtils.isFieldExists(phpClass, property.getName(), true);
 
     }
 
     public static ArrayList<PhpDocPropertyTag> getUnusedProperties(String table, List<PhpDocPropertyTag> propertyTags, PhpClass phpClass) {
+        return getUnusedProperties(table, propertyTags, phpClass, TableSchemaCache.getInstance(phpClass.getProject()));
+    }
+
+    public static ArrayList<PhpDocPropertyTag> getUnusedProperties(String table, List<PhpDocPropertyTag> propertyTags, PhpClass phpClass, TableSchemaCache schema) {
         ArrayList<PhpDocPropertyTag> unusedProperties = new ArrayList<>();
 
-        ArrayList<String> columns = getColumnsByTable(table, phpClass.getProject());
+        Set<String> columns = new HashSet<>(getColumnsByTable(table, phpClass.getProject(), schema));
         for (PhpDocPropertyTag tag : propertyTags) {
             PhpDocProperty property = tag.getProperty();
             if (!isPropertyUsed(property, columns, phpClass ))
@@ -342,39 +396,31 @@ public class DatabaseUtils {
     }
 
     public static ArrayList<VirtualProperty> getNotDeclaredColumns(String table, Collection<Field> fields, Project project) {
+        return getNotDeclaredColumns(table, fields, TableSchemaCache.getInstance(project));
+    }
 
-        DbPsiFacade facade = DbPsiFacade.getInstance(project);
-        List<DbDataSource> dataSources = facade.getDataSources();
-
+    public static ArrayList<VirtualProperty> getNotDeclaredColumns(String table, Collection<Field> fields, TableSchemaCache schema) {
         final ArrayList<VirtualProperty> result = new ArrayList<>();
         if (table == null)
             return result;
-        for (DbDataSource source : dataSources) {
-            for (Object item : source.getModel().traverser().filter(DasTable.class)) {
-                table = ClassUtils.removeQuotes(table);
-                if (item instanceof DasTable && ((DasTable) item).getName().equals(table)) {
-                    TableInfo tableInfo = new TableInfo((DasTable) item);
-
-                    for (DasColumn column : tableInfo.getColumns()) {
-                        boolean found = false;
-                        PhpDocProperty prevProperty = null;
-                        for (Field field : fields) {
-
-                            if (field != null && field.getName().equals(column.getName())) {
-                                found = true;
-                                break;
-                            }
-                        }
-                        if (!found) {
-                            VirtualProperty newItem = new VirtualProperty(column.getName(),
-                                    column.getDataType().typeName,
-                                    column.getDataType().toString(),
-                                    column.getComment(),
-                                     null);
-                            result.add(newItem);
-                        }
-                    }
+        table = ClassUtils.removeQuotes(table);
+
+        Set<String> fieldNames = new HashSet<>();
+        for (Field field : fields) {
+            if (field != null) {
+                fieldNames.add(field.getName());
+            }
+        }
 
+        for (DasTable dasTable : schema.findTables(table)) {
+            for (DasColumn column : schema.getColumns(dasTable)) {
+                if (!fieldNames.contains(column.getName())) {
+                    VirtualProperty newItem = new VirtualProperty(column.getName(),
+                            column.getDataType().typeName,
+                            column.getDataType().toString(),
+                            column.getComment(),
+                             null);
+                    result.add(newItem);
                 }
             }
         }
@@ -0,0 +1,172 @@
+package com.nvlad.yii2support.common;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Finds named parameters (":name") in SQL text of Yii conditions.
+ * Quoted strings and identifiers, "--" and block comments, "[[column]]" and "{{table}}" are skipped,
+ * as are "::" casts and "[:class:]" patterns.
+ * Results are cached by SQL text and shared between callers, returned arrays must not be modified.
+ */
+public final class SqlParameterScanner {
+    private static final int CACHE_LIMIT = 1000;
+    private static final String[] EMPTY = new String[0];
+    private static final Map<String, Parameters> cache = new ConcurrentHashMap<>();
+
+    private SqlParameterScanner() {
+    }
+
+    @NotNull
+    public static String[] getParameters(@NotNull String sql, boolean includeColon) {
+        if (cache.size() >= CACHE_LIMIT && !cache.containsKey(sql)) {
+            cache.clear();
+        }
+
+        final Parameters parameters = cache.computeIfAbsent(sql, SqlParameterScanner::scan);
+
+        return includeColon ? parameters.withColon : parameters.withoutColon;
+    }
+
+    @NotNull
+    private static Parameters scan(@NotNull String sql) {
+        final int length = sql.length();
+        List<String> names = null;
+        int i = 0;
+        while (i < length) {
+            final char c = sql.charAt(i);
+            switch (c) {
+                case '\'':
+                case '"':
+                case '`':
+                    i = skipQuoted(sql, i + 1, c);
+                    continue;
+                case '-':
+                    if (i + 1 < length && sql.charAt(i + 1) == '-') {
+                        i = skipLine(sql, i + 2);
+                        continue;
+                    }
+                    break;
+                case '/':
+                    if (i + 1 < length && sql.charAt(i + 1) == '*') {
+                        i = skipTo(sql, i + 2, "*/");
+                        continue;
+                    }
+                    break;
+                case '[':
+                    if (i + 1 < length && sql.charAt(i + 1) == '[') {
+                        i = skipTo(sql, i + 2, "]]");
+                        continue;
+                    }
+                    break;
+                case '{':
+                    if (i + 1 < length && sql.charAt(i + 1) == '{') {
+                        i = skipTo(sql, i + 2, "}}");
+                        continue;
+                    }
+                    break;
+                case ':':
+                    final int end = parameterEnd(sql, i);
+                    if (end > i) {
+                        final String name = sql.substring(i, end);
+                        if (names == null) {
+                            names = new ArrayList<>();
+                        }
+                        if (!names.contains(name)) {
+                            names.add(name);
+                        }
+                        i = end;
+                        continue;
+                    }
+
+                    // Skip both colons of "::" cast
+                    while (i + 1 < length && sql.charAt(i + 1) == ':') {
+                        i++;
+                    }
+                    break;
+            }
+
+            i++;
+        }
+
+        return names == null ? Parameters.NONE : new Parameters(names);
+    }
+
+    /**
+     * Returns end offset of parameter which starts with colon at offset, or offset if there is no parameter.
+     */
+    private static int parameterEnd(String sql, int offset) {
+        if (offset > 0 && (sql.charAt(offset - 1) == ':' || sql.charAt(offset - 1) == '[')) {
+            return offset;
+        }
+
+        int i = offset + 1;
+        if (i >= sql.length() || !isIdentifierStart(sql.charAt(i))) {
+            return offset;
+        }
+
+        i++;
+        while (i < sql.length() && isIdentifierPart(sql.charAt(i))) {
+            i++;
+        }
+
+        return i;
+    }
+
+    private static int skipQuoted(String sql, int offset, char quote) {
+        final int length = sql.length();
+        for (int i = offset; i < length; i++) {
+            final char c = sql.charAt(i);
+            if (c == '\\' && quote != '`') {
+                i++;
+            } else if (c == quote) {
+                return i + 1;
+            }
+        }
+
+        return length;
+    }
+
+    private static int skipLine(String sql, int offset) {
+        final int end = sql.indexOf('\n', offset);
+        return end == -1 ? sql.length() : end + 1;
+    }
+
+    private static int skipTo(String sql, int offset, String terminator) {
+        final int end = sql.indexOf(terminator, offset);
+        return end == -1 ? sql.length() : end + terminator.length();
+    }
+
+    private static boolean isIdentifierStart(char c) {
+        return c == '_' || Character.isLetter(c);
+    }
+
+    private static boolean isIdentifierPart(char c) {
+        return c == '_' || Character.isLetterOrDigit(c);
+    }
+
+    private static class Parameters {
+        static final Parameters NONE = new Parameters(new ArrayList<>());
+
+        final String[] withColon;
+        final String[] withoutColon;
+
+        Parameters(List<String> names) {
+            if (names.isEmpty()) {
+                withColon = EMPTY;
+                withoutColon = EMPTY;
+                return;
+            }
+
+            withColon = names.toArray(EMPTY);
+            withoutColon = new String[withColon.length];
+            for (int i = 0; i < withColon.length; i++) {
+                withoutColon[i] = withColon[i].substring(1);
+            }
+        }
+    }
+}
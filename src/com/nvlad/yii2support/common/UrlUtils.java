@@ -1,10 +1,23 @@
 package com.nvlad.yii2support.common;
 
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Key;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.openapi.vfs.VirtualFileManager;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
+import com.intellij.util.indexing.FileBasedIndex;
 import com.jetbrains.php.PhpIndex;
-import com.jetbrains.php.lang.psi.elements.Method;
-import com.jetbrains.php.lang.psi.elements.Parameter;
+import com.jetbrains.php.lang.PhpLanguage;
 import com.jetbrains.php.lang.psi.elements.PhpClass;
+import com.nvlad.yii2support.url.entities.Controller;
+import com.nvlad.yii2support.url.entities.Route;
+import com.nvlad.yii2support.url.index.RouteFileIndex;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
 
@@ -12,6 +25,7 @@ import java.util.*;
  * Created by oleg on 25.04.2017.
  */
 public class UrlUtils {
+    private static final Key<CachedValue<Map<String, Route>>> routesKey = Key.create("Yii2Support.Routes");
     private static final List<String> excludeControllers =  Arrays.asList(
             "\\yii\\rest\\ActiveController",
             "\\yii\\gii\\controllers\\DefaultController",
@@ -20,58 +34,191 @@ public class UrlUtils {
             "\\yii\\debug\\controllers\\UserController"
     );
 
-    private static Collection<PhpClass> getClassesByParent(String parentFqn, Project project) {
-        Collection<PhpClass> subclasses = new ArrayList<>();
-        Collection<PhpClass> directSubclasses = PhpIndex.getInstance(project).getDirectSubclasses(parentFqn);
-        for (PhpClass directSubclass: directSubclasses) {
-            subclasses.addAll(getClassesByParent(directSubclass.getFQN(), project));
-        }
-        subclasses.addAll(directSubclasses);
-        return subclasses;
+    /**
+     * Returns routes of web controllers with inherited actions, computed once per PHP or file structure change.
+     */
+    @NotNull
+    public static Map<String, Route> getRoutes(Project project) {
+        return CachedValuesManager.getManager(project).getCachedValue(project, routesKey, () -> CachedValueProvider.Result.create(
+                collectRoutes(project),
+                PsiModificationTracker.SERVICE.getInstance(project).forLanguage(PhpLanguage.INSTANCE),
+                VirtualFileManager.VFS_STRUCTURE_MODIFICATIONS
+        ), false);
     }
 
-    private static Collection<PhpClass> getControllers(Project project) {
-        return getClassesByParent("\\yii\\web\\Controller", project);
+    @Nullable
+    public static Map<String, String> getParamsByUrl(String url, Project project) {
+        final Route route = getRoutes(project).get(url);
+
+        return route != null ? route.parameters : null;
     }
 
-    public static HashMap<String, Method> getRoutes(Project project) {
-        Collection<PhpClass> controllers = getControllers(project);
-        HashMap<String, Method> routes = new HashMap<>();
-        for (PhpClass controller: controllers) {
-            if (!excludeControllers.contains(controller.getFQN()))
-                routes.putAll(controllerToRoutes(controller));
+    @NotNull
+    private static Map<String, Route> collectRoutes(Project project) {
+        final ControllerLookup lookup = new ControllerLookup(project);
+
+        Map<String, Route> routes = new HashMap<>();
+        for (String classFQN : lookup.getControllerClasses()) {
+            final String controllerId = getControllerId(classFQN);
+            if (controllerId == null || !lookup.isWebController(classFQN)) {
+                continue;
+            }
+
+            for (Map.Entry<String, Route> action : lookup.getActions(classFQN).entrySet()) {
+                routes.putIfAbsent(controllerId + "/" + action.getKey(), action.getValue());
+            }
         }
 
-        return routes;
+        return Collections.unmodifiableMap(routes);
     }
 
-    private static HashMap<String, Method> controllerToRoutes(PhpClass controller) {
-        String controllerName = controller.getName();
-        String controllerPart = controllerName.substring(0, controllerName.length() - 10);
-        controllerPart = StringUtils.CamelToId(controllerPart, "-");
+    /**
+     * Build controller ID with module and subdirectory prefixes from controller class FQN,
+     * e.g. "\app\modules\admin\controllers\user\ProfileController" => "admin/user/profile"
+     */
+    @Nullable
+    public static String getControllerId(@NotNull String classFQN) {
+        if (excludeControllers.contains(classFQN)) {
+            return null;
+        }
+
+        final List<String> parts = StringUtil.split(classFQN, "\\");
+        if (parts.isEmpty()) {
+            return null;
+        }
+
+        final String className = parts.get(parts.size() - 1);
+        if (className.length() <= 10 || !className.endsWith("Controller")) {
+            return null;
+        }
 
-        Collection<Method> methods = controller.getMethods();
-        HashMap<String, Method> routes = new HashMap<>();
-        for (Method method: methods ) {
-            String methodName = method.getName();
-            if (methodName.length() > 6 && methodName.startsWith("action") && Character.isUpperCase(methodName.charAt(6))) {
-                String actionPart = methodName.substring(6); // remove "action" prefix
-                actionPart = StringUtils.CamelToId(actionPart, "-"); // part2.replaceAll("(?<=[\\p{Lower}\\p{Digit}])[\\p{Upper}]", "-$0").toLowerCase();
+        final StringBuilder controllerId = new StringBuilder();
+        final int controllersIndex = parts.lastIndexOf("controllers");
+        if (controllersIndex != -1) {
+            for (int i = 0; i < controllersIndex - 1; i++) {
+                if (parts.get(i).equals("modules")) {
+                    controllerId.append(parts.get(i + 1)).append('/');
+                }
+            }
 
-                routes.put(controllerPart + "/" +actionPart, method);
+            for (int i = controllersIndex + 1; i < parts.size() - 1; i++) {
+                controllerId.append(parts.get(i)).append('/');
             }
         }
 
-        return routes;
+        controllerId.append(StringUtils.CamelToId(className.substring(0, className.length() - 10), "-"));
+
+        return controllerId.toString();
     }
 
-    public static Parameter[] getParamsByUrl(String url, Project project) {
-        final HashMap<String, Method> routes = getRoutes(project);
-        if (routes.containsKey(url)) {
-            Method method = routes.get(url);
-            return method.getParameters();
+    @Nullable
+    public static String getActionId(@NotNull String methodName) {
+        if (methodName.length() > 6 && methodName.startsWith("action") && Character.isUpperCase(methodName.charAt(6))) {
+            return StringUtils.CamelToId(methodName.substring(6), "-");
         }
 
         return null;
     }
+
+    /**
+     * Reads controllers from the index once per lookup and walks parent classes through their index entries.
+     * Parents which are not indexed (classes without actions) are linked through PhpIndex.
+     */
+    private static class ControllerLookup {
+        private static final String WEB_CONTROLLER = "\\yii\\web\\Controller";
+        private static final int PARENT_LIMIT = 50;
+
+        private final Project myProject;
+        private final GlobalSearchScope myScope;
+        private final PhpIndex myPhpIndex;
+        private final Map<String, Controller> myControllers = new HashMap<>();
+        private final Map<String, Boolean> myWebControllers = new HashMap<>();
+
+        ControllerLookup(Project project) {
+            myProject = project;
+            myScope = GlobalSearchScope.allScope(project);
+            myPhpIndex = PhpIndex.getInstance(project);
+        }
+
+        Collection<String> getControllerClasses() {
+            return FileBasedIndex.getInstance().getAllKeys(RouteFileIndex.identity, myProject);
+        }
+
+        /**
+         * Returns own and inherited actions by action ID, actions of child classes override parent ones.
+         */
+        Map<String, Route> getActions(String classFQN) {
+            final Map<String, Route> actions = new LinkedHashMap<>();
+            String parentFQN = classFQN;
+            int limit = PARENT_LIMIT;
+            while (parentFQN != null && !parentFQN.equals(WEB_CONTROLLER) && limit-- > 0) {
+                final Controller controller = getController(parentFQN);
+                if (controller == null) {
+                    break;
+                }
+
+                for (Map.Entry<String, Route> action : controller.actions.entrySet()) {
+                    actions.putIfAbsent(action.getKey(), action.getValue());
+                }
+                parentFQN = controller.parentClass;
+            }
+
+            return actions;
+        }
+
+        boolean isWebController(String classFQN) {
+            final List<String> visited = new ArrayList<>();
+            Boolean result = null;
+            String parentFQN = classFQN;
+            while (result == null) {
+                result = myWebControllers.get(parentFQN);
+                if (result != null) {
+                    break;
+                }
+
+                if (parentFQN.equals(WEB_CONTROLLER)) {
+                    result = true;
+                    break;
+                }
+
+                final Controller controller = getController(parentFQN);
+                if (controller == null || visited.size() >= PARENT_LIMIT) {
+                    result = false;
+                    break;
+                }
+
+                visited.add(parentFQN);
+                parentFQN = controller.parentClass;
+            }
+
+            for (String fqn : visited) {
+                myWebControllers.put(fqn, result);
+            }
+
+            return result;
+        }
+
+        @Nullable
+        private Controller getController(String classFQN) {
+            if (myControllers.containsKey(classFQN)) {
+                return myControllers.get(classFQN);
+            }
+
+            Controller controller = null;
+            final List<Controller> controllers = FileBasedIndex.getInstance()
+                    .getValues(RouteFileIndex.identity, classFQN, myScope);
+            if (!controllers.isEmpty()) {
+                controller = controllers.get(0);
+            } else {
+                final PhpClass phpClass = ClassUtils.getClass(myPhpIndex, classFQN);
+                if (phpClass != null && phpClass.getSuperFQN() != null) {
+                    controller = new Controller();
+                    controller.parentClass = phpClass.getSuperFQN();
+                }
+            }
+
+            myControllers.put(classFQN, controller);
+            return controller;
+        }
+    }
 }
@@ -1,57 +1,82 @@
 package com.nvlad.yii2support.common;
 
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.project.DumbService;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Key;
+import com.intellij.openapi.util.SimpleModificationTracker;
 import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.VirtualFileManager;
+import com.intellij.openapi.vfs.newvfs.BulkFileListener;
+import com.intellij.openapi.vfs.newvfs.events.VFileEvent;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.util.indexing.FileBasedIndex;
+import com.nvlad.yii2support.common.index.AliasFileIndex;
 import com.nvlad.yii2support.utils.Yii2SupportSettings;
 import org.apache.commons.lang.StringUtils;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
-import java.util.WeakHashMap;
-
-public class YiiAlias {
-    private static Map<Project, YiiAlias> yiiProjectAliasMap = new HashMap<>();
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves aliases from plugin settings and aliases declared in config files.
+ * Aliases are compiled into a trie of path segments, resolved values are memoized until settings, files holding
+ * indexed aliases or the set of config files change.
+ */
+public class YiiAlias implements Disposable {
+    private static final Key<CachedValue<AliasTable>> ALIAS_TABLE_KEY = Key.create("Yii2Support.YiiAliasTable");
+    private static final String CONSOLE_APP_ROOT = "@yii2support-console-command-app-root";
 
     public static YiiAlias getInstance(Project project) {
-        if (!yiiProjectAliasMap.containsKey(project)) {
-            yiiProjectAliasMap.put(project, new YiiAlias(project));
-        }
-
-        return yiiProjectAliasMap.get(project);
+        return ServiceManager.getService(project, YiiAlias.class);
     }
 
     private final Project myProject;
-    private final Map<String, String> myAliasMap;
-    private final Map<String, String> myResolvedAliasCache;
+    private final SimpleModificationTracker myConfigModificationTracker = new SimpleModificationTracker();
 
-    protected YiiAlias(Project project) {
+    public YiiAlias(Project project) {
         myProject = project;
-        myAliasMap = new HashMap<>(new WeakHashMap<>(Yii2SupportSettings.getInstance(project).aliasMap));
-        myResolvedAliasCache = new HashMap<>();
+        project.getMessageBus().connect(this).subscribe(VirtualFileManager.VFS_CHANGES, new BulkFileListener() {
+            @Override
+            public void after(@NotNull List<? extends VFileEvent> events) {
+                for (VFileEvent event : events) {
+                    if (isConfigPath(event.getPath())) {
+                        myConfigModificationTracker.incModificationCount();
+                        return;
+                    }
+                }
+            }
+        });
+    }
+
+    @Override
+    public void dispose() {
     }
 
     @Nullable
     public String getAlias(@NotNull String alias, boolean console) {
-        return aliasFromMap(myAliasMap, alias, console);
+        return getAliasTable().expand(alias, console, new HashSet<>());
     }
 
     @Nullable
     public String resolveAlias(@NotNull String alias, boolean console) {
-        String path = myResolvedAliasCache.get(alias);
-        if (path != null) {
-            return path;
-        }
-
-        path = getAlias(alias, console);
-        if (path == null) {
-            return null;
-        }
-
-        myResolvedAliasCache.put(alias, StringUtils.stripStart(path, "/"));
-
-        return myResolvedAliasCache.get(alias);
+        return getAliasTable().resolve(alias, console);
     }
 
     public VirtualFile resolveVirtualFile(@NotNull String alias, boolean console) {
@@ -65,35 +90,151 @@ public class YiiAlias {
         return myProject.getBaseDir().getFileSystem().findFileByPath(path);
     }
 
-    @Nullable
-    private String aliasFromMap(@NotNull Map<String, String> aliasMap, @NotNull String alias, boolean console) {
-        if (!alias.startsWith("@")) {
-            return alias;
+    @NotNull
+    private AliasTable getAliasTable() {
+        return CachedValuesManager.getManager(myProject).getCachedValue(myProject, ALIAS_TABLE_KEY, () -> {
+            final Yii2SupportSettings settings = Yii2SupportSettings.getInstance(myProject);
+            final AliasTable aliasTable = new AliasTable();
+            final Set<Object> dependencies = new LinkedHashSet<>();
+            dependencies.add(settings.getModificationTracker());
+            dependencies.add(myConfigModificationTracker);
+            dependencies.add(DumbService.getInstance(myProject).getModificationTracker());
+            getIndexedAliases(dependencies).forEach(aliasTable::put);
+            new HashMap<>(settings.aliasMap).forEach(aliasTable::put);
+
+            return CachedValueProvider.Result.create(aliasTable, dependencies.toArray());
+        }, false);
+    }
+
+    /**
+     * Returns aliases declared in project config files with paths relative to Yii root.
+     * Files holding the aliases are added to dependencies.
+     */
+    @NotNull
+    private Map<String, String> getIndexedAliases(@NotNull Set<Object> dependencies) {
+        final Map<String, String> result = new HashMap<>();
+        final String yiiRootPath = YiiApplicationUtils.getYiiRootPath(myProject);
+        if (yiiRootPath == null || DumbService.isDumb(myProject)) {
+            return result;
         }
 
-        if (console && alias.startsWith("@app/")) {
-             alias = "@yii2support-console-command-app-root" + alias.substring(4);
+        ReadAction.run(() -> {
+            final FileBasedIndex fileBasedIndex = FileBasedIndex.getInstance();
+            final GlobalSearchScope scope = GlobalSearchScope.projectScope(myProject);
+            final PsiManager psiManager = PsiManager.getInstance(myProject);
+            final List<String> aliases = new ArrayList<>();
+            fileBasedIndex.processAllKeys(AliasFileIndex.identity, aliases::add, scope, null);
+
+            for (String alias : aliases) {
+                fileBasedIndex.processValues(AliasFileIndex.identity, alias, null, (file, value) -> {
+                    final PsiFile psiFile = psiManager.findFile(file);
+                    if (psiFile != null) {
+                        dependencies.add(psiFile);
+                    }
+
+                    if (!value.startsWith("@")) {
+                        if (value.equals(yiiRootPath)) {
+                            value = "";
+                        } else if (value.startsWith(yiiRootPath + "/")) {
+                            value = value.substring(yiiRootPath.length() + 1);
+                        } else {
+                            return true;
+                        }
+                    }
+
+                    result.put(alias, value);
+                    return false;
+                }, scope);
+            }
+        });
+
+        return result;
+    }
+
+    /**
+     * Same paths as accepted by {@link AliasFileIndex}, catches created, deleted and moved config files.
+     */
+    private static boolean isConfigPath(@NotNull String path) {
+        return (path.contains("/config/") || path.endsWith("/config")) && !path.contains("/vendor/");
+    }
+
+    private static class AliasTable {
+        private final AliasNode myRoot = new AliasNode();
+        private final Map<String, Optional<String>> myResolved = new ConcurrentHashMap<>();
+        private final Map<String, Optional<String>> myResolvedConsole = new ConcurrentHashMap<>();
+
+        void put(@NotNull String alias, @NotNull String value) {
+            AliasNode node = myRoot;
+            for (String segment : alias.split("/", -1)) {
+                node = node.children.computeIfAbsent(segment, key -> new AliasNode());
+            }
+            node.value = value;
         }
 
-        String value = aliasMap.get(alias);
-        if (value != null) {
-            return aliasFromMap(aliasMap, alias, console);
+        @Nullable
+        String resolve(@NotNull String alias, boolean console) {
+            final Map<String, Optional<String>> resolved = console ? myResolvedConsole : myResolved;
+            Optional<String> path = resolved.get(alias);
+            if (path == null) {
+                path = Optional.ofNullable(expand(alias, console, new HashSet<>()))
+                        .map(value -> StringUtils.stripStart(value, "/"));
+                resolved.put(alias, path);
+            }
+
+            return path.orElse(null);
         }
 
-        String foundAlias = null;
-        for (String aliasKey : aliasMap.keySet()) {
-            if (alias.startsWith(aliasKey)) {
-                if (foundAlias == null || aliasKey.length() > foundAlias.length()) {
-                    foundAlias = aliasKey;
+        /**
+         * Replaces the longest alias prefix of given alias, expanding chained aliases.
+         * Returns null for unknown aliases and alias cycles.
+         */
+        @Nullable
+        String expand(@NotNull String alias, boolean console, @NotNull Set<String> visited) {
+            if (!alias.startsWith("@")) {
+                return alias;
+            }
+
+            if (console && (alias.equals("@app") || alias.startsWith("@app/"))) {
+                alias = CONSOLE_APP_ROOT + alias.substring(4);
+            }
+
+            AliasNode node = myRoot;
+            AliasNode foundNode = null;
+            int foundEnd = 0;
+            int start = 0;
+            while (start <= alias.length()) {
+                int end = alias.indexOf('/', start);
+                if (end == -1) {
+                    end = alias.length();
                 }
+
+                node = node.children.get(alias.substring(start, end));
+                if (node == null) {
+                    break;
+                }
+
+                if (node.value != null) {
+                    foundNode = node;
+                    foundEnd = end;
+                }
+                start = end + 1;
             }
-        }
 
-        if (foundAlias == null) {
-            return null;
+            if (foundNode == null || !visited.add(alias.substring(0, foundEnd))) {
+                return null;
+            }
+
+            final String value = expand(foundNode.value, console, visited);
+            if (value == null) {
+                return null;
+            }
+
+            return value + alias.substring(foundEnd);
         }
+    }
 
-        value = alias.replace(foundAlias, aliasMap.get(foundAlias));
-        return aliasFromMap(aliasMap, value, console);
+    private static class AliasNode {
+        final Map<String, AliasNode> children = new HashMap<>();
+        String value;
     }
 }
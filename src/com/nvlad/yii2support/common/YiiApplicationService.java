@@ -0,0 +1,188 @@
+package com.nvlad.yii2support.common;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.openapi.vfs.LocalFileSystem;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.VirtualFileManager;
+import com.intellij.openapi.vfs.newvfs.BulkFileListener;
+import com.intellij.openapi.vfs.newvfs.events.VFileEvent;
+import com.nvlad.yii2support.utils.Yii2SupportSettings;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+
+/**
+ * Caches Yii root, application template and application directories of the project.
+ * Cache is dropped on settings change and on VFS events touching Yii root or its direct children.
+ */
+public class YiiApplicationService implements Disposable {
+    public static YiiApplicationService getInstance(@NotNull Project project) {
+        return ServiceManager.getService(project, YiiApplicationService.class);
+    }
+
+    private final Project myProject;
+    private volatile YiiRoot myYiiRoot;
+
+    public YiiApplicationService(Project project) {
+        myProject = project;
+        project.getMessageBus().connect(this).subscribe(VirtualFileManager.VFS_CHANGES, new BulkFileListener() {
+            @Override
+            public void after(@NotNull List<? extends VFileEvent> events) {
+                final YiiRoot yiiRoot = myYiiRoot;
+                if (yiiRoot == null) {
+                    return;
+                }
+
+                for (VFileEvent event : events) {
+                    if (yiiRoot.isAffectedBy(event.getPath())
+                            || (event.getFile() != null && yiiRoot.isAffectedBy(event.getFile().getPath()))) {
+                        invalidate();
+                        return;
+                    }
+                }
+            }
+        });
+    }
+
+    @Nullable
+    public VirtualFile getYiiRootVirtualFile() {
+        return getYiiRoot().virtualFile;
+    }
+
+    @NotNull
+    public YiiApplicationTemplate getAppTemplate() {
+        return getYiiRoot().template;
+    }
+
+    /**
+     * Returns "app" for single application projects, otherwise the first directory of the file path inside Yii root.
+     */
+    @NotNull
+    public String getApplicationName(@NotNull VirtualFile file) {
+        final YiiRoot yiiRoot = getYiiRoot();
+        if (yiiRoot.virtualFile == null || !yiiRoot.virtualFile.isValid()) {
+            return "";
+        }
+
+        if (yiiRoot.singleApplication) {
+            return "app";
+        }
+
+        final String fileUrl = file.getUrl();
+        if (!fileUrl.startsWith(yiiRoot.url + "/")) {
+            return "";
+        }
+
+        final int nameStart = yiiRoot.url.length() + 1;
+        final int slashIndex = fileUrl.indexOf('/', nameStart);
+        if (slashIndex == -1) {
+            return "";
+        }
+
+        return fileUrl.substring(nameStart, slashIndex);
+    }
+
+    public void invalidate() {
+        myYiiRoot = null;
+    }
+
+    @Override
+    public void dispose() {
+        myYiiRoot = null;
+    }
+
+    @NotNull
+    private YiiRoot getYiiRoot() {
+        final Yii2SupportSettings settings = Yii2SupportSettings.getInstance(myProject);
+        final long settingsStamp = settings.getModificationTracker().getModificationCount();
+
+        YiiRoot yiiRoot = myYiiRoot;
+        if (yiiRoot == null || yiiRoot.settingsStamp != settingsStamp) {
+            yiiRoot = new YiiRoot(findYiiRoot(myProject, settings.yiiRootPath), settingsStamp);
+            myYiiRoot = yiiRoot;
+        }
+
+        return yiiRoot;
+    }
+
+    @Nullable
+    static VirtualFile findYiiRoot(@NotNull Project project, @Nullable String path) {
+        if (path == null) {
+            return project.getBaseDir();
+        }
+
+        LocalFileSystem fileSystem = LocalFileSystem.getInstance();
+        VirtualFile yiiRootPath = fileSystem.findFileByPath(path);
+        if (yiiRootPath == null && !ApplicationManager.getApplication().isReadAccessAllowed()) {
+            yiiRootPath = fileSystem.refreshAndFindFileByPath(path);
+        }
+
+        if (yiiRootPath == null) {
+            yiiRootPath = project.getBaseDir();
+            path = path.replace('\\', '/');
+            if (path.startsWith("./")) {
+                path = path.substring(2);
+            }
+
+            if (path.startsWith("/")) {
+                path = path.substring(1);
+            }
+
+            List<String> pathEntries = StringUtil.split(path, "/");
+            for (String pathEntry : pathEntries) {
+                if (yiiRootPath == null) {
+                    break;
+                }
+
+                yiiRootPath = yiiRootPath.findChild(pathEntry);
+            }
+        }
+
+        return yiiRootPath;
+    }
+
+    private static class YiiRoot {
+        @Nullable
+        final VirtualFile virtualFile;
+        final String path;
+        final String url;
+        final long settingsStamp;
+        final YiiApplicationTemplate template;
+        final boolean singleApplication;
+
+        YiiRoot(@Nullable VirtualFile virtualFile, long settingsStamp) {
+            this.virtualFile = virtualFile;
+            this.settingsStamp = settingsStamp;
+            this.template = YiiApplicationUtils.getAppTemplate(virtualFile);
+            if (virtualFile == null || !virtualFile.isValid()) {
+                path = null;
+                url = null;
+                singleApplication = false;
+                return;
+            }
+
+            path = virtualFile.getPath();
+            url = virtualFile.getUrl();
+            singleApplication = virtualFile.findChild("controllers") != null;
+        }
+
+        boolean isAffectedBy(String changedPath) {
+            if (path == null) {
+                return true;
+            }
+
+            // Yii root itself or one of its parents
+            if (path.equals(changedPath) || path.startsWith(changedPath + "/")) {
+                return true;
+            }
+
+            final int lastSlash = changedPath.lastIndexOf('/');
+            return lastSlash != -1 && path.equals(changedPath.substring(0, lastSlash));
+        }
+    }
+}
@@ -1,21 +1,12 @@
 package com.nvlad.yii2support.common;
 
 import com.intellij.openapi.project.Project;
-import com.intellij.openapi.util.text.StringUtil;
-import com.intellij.openapi.vfs.LocalFileSystem;
 import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.psi.PsiFile;
-import com.nvlad.yii2support.utils.Yii2SupportSettings;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-
 public class YiiApplicationUtils {
-    private static Map<Project, VirtualFile> yiiRootPaths = new HashMap<>();
-
     @Nullable
     public static String getYiiRootPath(Project project) {
         VirtualFile yiiRoot = getYiiRootVirtualFile(project);
@@ -31,7 +22,7 @@ public class YiiApplicationUtils {
     }
 
     public static void resetYiiRootPath(Project project) {
-        yiiRootPaths.remove(project);
+        YiiApplicationService.getInstance(project).invalidate();
     }
 
     @NotNull
@@ -41,35 +32,15 @@ public class YiiApplicationUtils {
 
     @NotNull
     public static String getApplicationName(@NotNull VirtualFile file, @NotNull Project project) {
-        VirtualFile yiiRoot = getYiiRootVirtualFile(project);
-        if (yiiRoot == null || !yiiRoot.isValid()) {
-            return "";
-        }
-
-        if (yiiRoot.findChild("controllers") == null) {
-            final String fileUrl = file.getUrl();
-            if (!fileUrl.startsWith(yiiRoot.getUrl())) {
-                return "";
-            }
-
-            int yiiRootLength = yiiRoot.getUrl().length();
-            int slashIndex = fileUrl.indexOf("/", yiiRootLength + 1);
-            if (slashIndex == -1) {
-                return "";
-            }
-
-            return fileUrl.substring(yiiRootLength + 1, slashIndex);
-        }
-
-        return "app";
+        return YiiApplicationService.getInstance(project).getApplicationName(file);
     }
 
     public static YiiApplicationTemplate getAppTemplate(Project project) {
-        return getAppTemplate(getYiiRootVirtualFile(project));
+        return YiiApplicationService.getInstance(project).getAppTemplate();
     }
 
     public static YiiApplicationTemplate getAppTemplate(Project project, String path) {
-        return getAppTemplate(getYiiRootVirtualFile(project, path));
+        return getAppTemplate(YiiApplicationService.findYiiRoot(project, path));
     }
 
     public static YiiApplicationTemplate getAppTemplate(@Nullable VirtualFile yiiRoot) {
@@ -98,45 +69,6 @@ public class YiiApplicationUtils {
 
     @Nullable
     public static VirtualFile getYiiRootVirtualFile(Project project) {
-        return getYiiRootVirtualFile(project, Yii2SupportSettings.getInstance(project).yiiRootPath);
-
-    }
-
-    @Nullable
-    public static VirtualFile getYiiRootVirtualFile(Project project, String path) {
-        if (yiiRootPaths.containsKey(project)) {
-            return yiiRootPaths.get(project);
-        }
-
-        VirtualFile yiiRootPath;
-        if (path == null) {
-            yiiRootPath = project.getBaseDir();
-        } else {
-            LocalFileSystem fileSystem = LocalFileSystem.getInstance();
-            yiiRootPath = fileSystem.refreshAndFindFileByPath(path);
-            if (yiiRootPath == null) {
-                yiiRootPath = project.getBaseDir();
-                path = path.replace('\\', '/');
-                if (path.startsWith("./")) {
-                    path = path.substring(2);
-                }
-
-                if (path.startsWith("/")) {
-                    path = path.substring(1);
-                }
-
-                List<String> pathEntries = StringUtil.split(path, "/");
-                for (String pathEntry : pathEntries) {
-                    yiiRootPath = yiiRootPath.findChild(pathEntry);
-                    if (yiiRootPath == null) {
-                        break;
-                    }
-                }
-            }
-        }
-
-        yiiRootPaths.put(project, yiiRootPath);
-
-        return yiiRootPath;
+        return YiiApplicationService.getInstance(project).getYiiRootVirtualFile();
     }
 }
@@ -0,0 +1,196 @@
+package com.nvlad.yii2support.common.index;
+
+import com.intellij.openapi.util.io.FileUtil;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.util.indexing.*;
+import com.intellij.util.io.DataExternalizer;
+import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.KeyDescriptor;
+import com.jetbrains.php.lang.PhpFileType;
+import com.jetbrains.php.lang.psi.elements.*;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Aliases declared in config files by "Yii::setAlias()" calls and "aliases" config keys.
+ * Values are alias strings or absolute paths computed from "__DIR__" and "dirname()".
+ */
+public class AliasFileIndex extends FileBasedIndexExtension<String, String> {
+    public static final ID<String, String> identity = ID.create("Yii2Support.AliasFileIndex");
+    private final AliasDataIndexer myAliasDataIndexer;
+    private final FileBasedIndex.InputFilter myInputFilter;
+
+    public AliasFileIndex() {
+        myAliasDataIndexer = new AliasDataIndexer();
+        myInputFilter = new DefaultFileTypeSpecificInputFilter(PhpFileType.INSTANCE) {
+            @Override
+            public boolean acceptInput(@NotNull VirtualFile file) {
+                final String path = file.getPath();
+                return path.contains("/config/") && !path.contains("/vendor/");
+            }
+        };
+    }
+
+    @NotNull
+    @Override
+    public ID<String, String> getName() {
+        return identity;
+    }
+
+    @NotNull
+    @Override
+    public DataIndexer<String, String, FileContent> getIndexer() {
+        return myAliasDataIndexer;
+    }
+
+    @NotNull
+    @Override
+    public KeyDescriptor<String> getKeyDescriptor() {
+        return EnumeratorStringDescriptor.INSTANCE;
+    }
+
+    @NotNull
+    @Override
+    public DataExternalizer<String> getValueExternalizer() {
+        return EnumeratorStringDescriptor.INSTANCE;
+    }
+
+    @Override
+    public int getVersion() {
+        return 1;
+    }
+
+    @NotNull
+    @Override
+    public FileBasedIndex.InputFilter getInputFilter() {
+        return myInputFilter;
+    }
+
+    @Override
+    public boolean dependsOnFileContent() {
+        return true;
+    }
+
+    private static class AliasDataIndexer implements DataIndexer<String, String, FileContent> {
+        @Override
+        @NotNull
+        public Map<String, String> map(@NotNull final FileContent inputData) {
+            final CharSequence content = inputData.getContentAsText();
+            if (!StringUtil.contains(content, "setAlias") && !StringUtil.contains(content, "aliases")) {
+                return Collections.emptyMap();
+            }
+
+            final VirtualFile directory = inputData.getFile().getParent();
+            final String directoryPath = directory != null ? directory.getPath() : "";
+            final Map<String, String> map = new HashMap<>();
+
+            for (MethodReference reference : PsiTreeUtil.findChildrenOfType(inputData.getPsiFile(), MethodReference.class)) {
+                if (!"setAlias".equals(reference.getName()) || !(reference.getClassReference() instanceof ClassReference)) {
+                    continue;
+                }
+
+                final String className = ((ClassReference) reference.getClassReference()).getName();
+                final PsiElement[] parameters = reference.getParameters();
+                if (!"Yii".equals(className) || parameters.length < 2) {
+                    continue;
+                }
+
+                putAlias(map, parameters[0], parameters[1], directoryPath);
+            }
+
+            for (ArrayHashElement hashElement : PsiTreeUtil.findChildrenOfType(inputData.getPsiFile(), ArrayHashElement.class)) {
+                if (!(hashElement.getKey() instanceof StringLiteralExpression)
+                        || !"aliases".equals(((StringLiteralExpression) hashElement.getKey()).getContents())
+                        || !(hashElement.getValue() instanceof ArrayCreationExpression)) {
+                    continue;
+                }
+
+                for (ArrayHashElement aliasElement : ((ArrayCreationExpression) hashElement.getValue()).getHashElements()) {
+                    putAlias(map, aliasElement.getKey(), aliasElement.getValue(), directoryPath);
+                }
+            }
+
+            return map;
+        }
+
+        private static void putAlias(Map<String, String> map, PsiElement key, PsiElement value, String directoryPath) {
+            if (!(key instanceof StringLiteralExpression)) {
+                return;
+            }
+
+            final String alias = ((StringLiteralExpression) key).getContents();
+            if (!alias.startsWith("@") || map.containsKey(alias)) {
+                return;
+            }
+
+            String path = evaluatePath(value, directoryPath);
+            if (path == null) {
+                return;
+            }
+
+            if (!path.startsWith("@")) {
+                path = FileUtil.toCanonicalPath(path, '/');
+            }
+            map.put(alias, StringUtil.trimEnd(path, "/"));
+        }
+
+        /**
+         * Evaluates string literals, "__DIR__", "dirname()" and their concatenations.
+         */
+        @Nullable
+        private static String evaluatePath(PsiElement element, String directoryPath) {
+            if (element instanceof StringLiteralExpression) {
+                return ((StringLiteralExpression) element).getContents();
+            }
+
+            if (element instanceof ConstantReference && "__DIR__".equals(((ConstantReference) element).getName())) {
+                return directoryPath;
+            }
+
+            if (element instanceof ConcatenationExpression) {
+                final String left = evaluatePath(((ConcatenationExpression) element).getLeftOperand(), directoryPath);
+                final String right = evaluatePath(((ConcatenationExpression) element).getRightOperand(), directoryPath);
+                if (left == null || right == null) {
+                    return null;
+                }
+
+                return left + right;
+            }
+
+            if (element instanceof FunctionReference && "dirname".equals(((FunctionReference) element).getName())) {
+                final PsiElement[] parameters = ((FunctionReference) element).getParameters();
+                String path = parameters.length > 0 ? evaluatePath(parameters[0], directoryPath) : null;
+                if (path == null || path.startsWith("@")) {
+                    return null;
+                }
+
+                path = FileUtil.toCanonicalPath(path, '/');
+
+                int levels = 1;
+                if (parameters.length > 1) {
+                    levels = StringUtil.parseInt(parameters[1].getText(), 1);
+                }
+
+                for (int i = 0; i < levels; i++) {
+                    final int slashIndex = path.lastIndexOf('/');
+                    if (slashIndex <= 0) {
+                        return null;
+                    }
+
+                    path = path.substring(0, slashIndex);
+                }
+
+                return path;
+            }
+
+            return null;
+        }
+    }
+}
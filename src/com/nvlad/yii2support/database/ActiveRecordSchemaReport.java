@@ -0,0 +1,199 @@
+package com.nvlad.yii2support.database;
+
+import com.intellij.concurrency.JobLauncher;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ProjectFileIndex;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.jetbrains.php.PhpIndex;
+import com.jetbrains.php.lang.documentation.phpdoc.psi.PhpDocComment;
+import com.jetbrains.php.lang.documentation.phpdoc.psi.tags.PhpDocPropertyTag;
+import com.jetbrains.php.lang.psi.elements.PhpClass;
+import com.nvlad.yii2support.common.ClassUtils;
+import com.nvlad.yii2support.common.DatabaseUtils;
+import com.nvlad.yii2support.common.FileUtil;
+import com.nvlad.yii2support.common.VirtualProperty;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Project-wide pass of "Missing properties" and "Undetectable table" checks over all ActiveRecord classes.
+ * All classes are checked against one table schema snapshot, limited to the connection of each class,
+ * in parallel read actions.
+ */
+public class ActiveRecordSchemaReport {
+    public enum ProblemType {
+        MissingTable,
+        MissingProperty,
+        UnusedProperty,
+    }
+
+    public static class Problem {
+        public final ProblemType type;
+        public final String classFQN;
+        public final String filePath;
+        public final String table;
+        public final String name;
+
+        Problem(ProblemType type, String classFQN, String filePath, String table, String name) {
+            this.type = type;
+            this.classFQN = classFQN;
+            this.filePath = filePath;
+            this.table = table;
+            this.name = name;
+        }
+    }
+
+    private final Project myProject;
+    private final List<Problem> myProblems = new ArrayList<>();
+    private int myClassCount;
+    private long myDuration;
+
+    public ActiveRecordSchemaReport(@NotNull Project project) {
+        myProject = project;
+    }
+
+    public void run(@NotNull ProgressIndicator indicator) {
+        final long start = System.currentTimeMillis();
+        indicator.setIndeterminate(false);
+        indicator.setText("Collecting ActiveRecord classes");
+
+        final TableSchemaCache schema = ReadAction.compute(() -> TableSchemaCache.getInstance(myProject));
+        final List<PhpClass> classes = ReadAction.compute(this::collectClasses);
+        final Collection<Problem> problems = new ConcurrentLinkedQueue<>();
+        final AtomicInteger processed = new AtomicInteger();
+
+        indicator.setText("Checking ActiveRecord classes");
+        JobLauncher.getInstance().invokeConcurrentlyUnderProgress(classes, indicator, phpClass -> {
+            ReadAction.run(() -> {
+                if (phpClass.isValid()) {
+                    checkClass(phpClass, schema, problems);
+                }
+            });
+            indicator.setFraction((double) processed.incrementAndGet() / classes.size());
+            return true;
+        });
+
+        myProblems.clear();
+        myProblems.addAll(problems);
+        myProblems.sort(Comparator.comparing((Problem problem) -> problem.classFQN)
+                .thenComparing(problem -> problem.type)
+                .thenComparing(problem -> problem.name));
+        myClassCount = classes.size();
+        myDuration = System.currentTimeMillis() - start;
+    }
+
+    @NotNull
+    public List<Problem> getProblems() {
+        return Collections.unmodifiableList(myProblems);
+    }
+
+    public int getClassCount() {
+        return myClassCount;
+    }
+
+    @NotNull
+    public String getSummary() {
+        int missingTables = 0;
+        int missingProperties = 0;
+        int unusedProperties = 0;
+        for (Problem problem : myProblems) {
+            switch (problem.type) {
+                case MissingTable:
+                    missingTables++;
+                    break;
+                case MissingProperty:
+                    missingProperties++;
+                    break;
+                case UnusedProperty:
+                    unusedProperties++;
+                    break;
+            }
+        }
+
+        return "Checked " + myClassCount + " ActiveRecord classes in " + myDuration + " ms\n"
+                + "Tables not found: " + missingTables + "\n"
+                + "Missing properties: " + missingProperties + "\n"
+                + "Unused properties: " + unusedProperties;
+    }
+
+    /**
+     * Returns report as tab separated values, one problem per line.
+     */
+    @NotNull
+    public String toText() {
+        final StringBuilder builder = new StringBuilder();
+        builder.append("type\tclass\ttable\tname\tfile\n");
+        for (Problem problem : myProblems) {
+            builder.append(problem.type).append('\t')
+                    .append(problem.classFQN).append('\t')
+                    .append(problem.table).append('\t')
+                    .append(problem.name).append('\t')
+                    .append(problem.filePath).append('\n');
+        }
+
+        return builder.toString();
+    }
+
+    @NotNull
+    private List<PhpClass> collectClasses() {
+        final ProjectFileIndex fileIndex = ProjectFileIndex.getInstance(myProject);
+        final List<PhpClass> result = new ArrayList<>();
+        for (PhpClass phpClass : PhpIndex.getInstance(myProject).getAllSubclasses("yii\\db\\BaseActiveRecord")) {
+            if (phpClass.isAbstract() || phpClass.isInterface() || phpClass.isTrait()) {
+                continue;
+            }
+
+            final VirtualFile virtualFile = FileUtil.getVirtualFile(phpClass.getContainingFile());
+            // Vendor packages are PHP include paths, i.e. library roots
+            if (virtualFile == null || !fileIndex.isInContent(virtualFile) || fileIndex.isInLibrary(virtualFile)) {
+                continue;
+            }
+
+            result.add(phpClass);
+        }
+
+        return result;
+    }
+
+    private void checkClass(PhpClass phpClass, TableSchemaCache schema, Collection<Problem> problems) {
+        final String classFQN = phpClass.getFQN();
+        final VirtualFile virtualFile = FileUtil.getVirtualFile(phpClass.getContainingFile());
+        final String filePath = virtualFile != null ? virtualFile.getPath() : "";
+        final String table = DatabaseUtils.getTableByActiveRecordClass(phpClass);
+        final TableSchemaCache connectionSchema = schema.forConnection(DatabaseUtils.getConnectionByActiveRecordClass(phpClass));
+        // Table checks apply to SQL ActiveRecord only, as in "Undetectable table" inspection
+        final boolean sqlActiveRecord = ClassUtils.isClassInheritsOrEqual(phpClass, "\\yii\\db\\ActiveRecord", PhpIndex.getInstance(myProject));
+        if (table == null) {
+            if (sqlActiveRecord) {
+                problems.add(new Problem(ProblemType.MissingTable, classFQN, filePath, "", ""));
+            }
+            return;
+        }
+
+        if (sqlActiveRecord && !DatabaseUtils.isTableExists(table, connectionSchema)) {
+            problems.add(new Problem(ProblemType.MissingTable, classFQN, filePath, table, ""));
+            return;
+        }
+
+        for (VirtualProperty column : DatabaseUtils.getNotDeclaredColumns(table, phpClass.getFields(), connectionSchema)) {
+            problems.add(new Problem(ProblemType.MissingProperty, classFQN, filePath, table, column.getName()));
+        }
+
+        final PhpDocComment docComment = phpClass.getDocComment();
+        if (docComment != null) {
+            for (PhpDocPropertyTag tag : DatabaseUtils.getUnusedProperties(table, docComment.getPropertyTags(), phpClass, connectionSchema)) {
+                final String name = tag.getProperty() != null ? tag.getProperty().getName() : tag.getName();
+                problems.add(new Problem(ProblemType.UnusedProperty, classFQN, filePath, table, name));
+            }
+        }
+    }
+}
@@ -37,7 +37,7 @@ public class MissedParamInspection extends PhpInspection {
 
                         PsiElement element = reference.getParameters()[conditionParameterIndex];
 
-                        String condition = ClassUtils.getStringByElement(element);
+                        String condition = DatabaseUtils.getConditionByElement(element);
                         String[] conditionParams = DatabaseUtils.extractParamsFromCondition(condition);
                         String[] conditionParamsWithoutColon = DatabaseUtils.extractParamsFromCondition(condition, false);
 
@@ -82,8 +82,8 @@ public class MissedParamInspection extends PhpInspection {
                                 (method.getParameters()[paramPosition - 1].getName().equals("condition") ||
                                         method.getParameters()[paramPosition - 1].getName().equals("expression"))) {
                             PsiElement element = methodRef.getParameters()[paramPosition - 1];
-                            if (element instanceof StringLiteralExpression) {
-                                String condition = ((StringLiteralExpression) element).getContents();
+                            if (element instanceof StringLiteralExpression || element instanceof ConcatenationExpression) {
+                                String condition = DatabaseUtils.getConditionByElement(element);
                                 String[] conditionParams = DatabaseUtils.extractParamsFromCondition(condition);
                                 List<ArrayHashElement> hashElements = Lists.newArrayList(expression.getHashElements());
                                 String[] params = new String[hashElements.size()];
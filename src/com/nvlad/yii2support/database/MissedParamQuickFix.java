@@ -52,7 +52,7 @@ public class MissedParamQuickFix  implements LocalQuickFix {
                   && conditionParameterIndex > -1
                   && conditionParameterIndex == paramParameterIndex - 1
                   && methodReference.getParameters().length > conditionParameterIndex) {
-              String condition = methodReference.getParameters()[conditionParameterIndex].getText();
+              String condition = DatabaseUtils.getConditionByElement(methodReference.getParameters()[conditionParameterIndex]);
               String[] conditionParams = DatabaseUtils.extractParamsFromCondition(condition);
 
               ArrayCreationExpression array = null;
@@ -22,6 +22,13 @@ import java.util.regex.Pattern;
  * Created by oleg on 16.02.2017.
  */
 public class QueryCompletionProvider extends com.intellij.codeInsight.completion.CompletionProvider<CompletionParameters> {
+    // match "{{%table}}.[[co", "{{%table}}.[[", "{{%table}}.", "{{%table}}.col", "{{table}}.", "table.[[col",
+    // "table.[[", "table.col" and "table." at end of string and return "tn" group with table name
+    private static final Pattern tablePrefixPattern = Pattern.compile(".*?((?<tn>[\\w-]+)(}{2})?)\\.((\\[\\[)?[\\w-]*)?$");
+    // match "{{%table}}.[[co", "{{%table}}.[[", "{{%table}}.", "{{%table}}.col", "{{table}}.", "table.[[col",
+    // "table.[[", "table.col" and "table." at end of string
+    private static final Pattern tabledPrefixPattern = Pattern.compile("[\\w-]+(}{2})?\\.(\\[{2})?[\\w-]*?$");
+
     @Override
     protected void addCompletions(@NotNull CompletionParameters completionParameters, ProcessingContext processingContext, @NotNull CompletionResultSet completionResultSet) {
         MethodReference methodRef = ClassUtils.getMethodRef(completionParameters.getPosition(), 10);
@@ -30,37 +37,18 @@ public class QueryCompletionProvider extends com.intellij.codeInsight.completion
             char[] prefixes = {' ', ',', '.','[', '{', '%', '('};
             completionResultSet = adjustPrefixes(prefixes, completionResultSet);
 
-            Method method = (Method) methodRef.resolve();
+            QueryContext context = QueryContext.get(methodRef);
+            Method method = context.method;
             if (method == null) {
                 return;
             }
 
             int paramPosition = ClassUtils.indexForElementInParameterList(completionParameters.getPosition());
 
-            PhpClass phpClass = method.getContainingClass();
-            if (phpClass == null)
-                return;
-
-            PhpIndex index = PhpIndex.getInstance(method.getProject());
-            if ( (ClassUtils.isClassInheritsOrEqual(phpClass, "\\yii\\db\\Query", index)
-                    || ClassUtils.isClassInheritsOrEqual(phpClass,"\\yii\\db\\QueryTrait", index)
-                    || ClassUtils.isClassInherit(phpClass, "\\yii\\db\\BaseActiveRecord", index)
-                    || ClassUtils.isClassInheritsOrEqual(phpClass, "\\yii\\db\\Connection", index)
-                    || ClassUtils.isClassInheritsOrEqual(phpClass, "\\yii\\db\\Command", index)
-                    || ClassUtils.isClassInheritsOrEqual(phpClass,"\\yii\\db\\Migration", index)
-                )) {
-
-
-                PhpClass activeRecordClass = null;
-                PhpClass possibleActiveRecordClass = ClassUtils.getPhpClassByCallChain(methodRef);
-                if ( ClassUtils.isClassInherit(possibleActiveRecordClass, ClassUtils.getClass(index, "\\yii\\db\\BaseActiveRecord")))
-                    activeRecordClass = possibleActiveRecordClass;
-                // Calls inside ActiveQuery paired with ActiveRecord
-                else if (ClassUtils.isClassInheritsOrEqual(possibleActiveRecordClass, ClassUtils.getClass(index, "\\yii\\db\\ActiveQuery"), 100)) {
-                    if (possibleActiveRecordClass.getDocComment() != null) {
-                        activeRecordClass = ClassUtils.findClassInSeeTags(index, possibleActiveRecordClass, "\\yii\\db\\BaseActiveRecord");
-                    }
-                }
+            PhpClass phpClass = context.phpClass;
+            if (context.isQueryMethod()) {
+                PhpIndex index = PhpIndex.getInstance(method.getProject());
+                PhpClass activeRecordClass = context.activeRecordClass;
 
                 /*----- ActiveQuery condition and column paramters ----*/
                 Project project = completionParameters.getPosition().getProject();
@@ -96,12 +84,15 @@ public class QueryCompletionProvider extends com.intellij.codeInsight.completion
                     }
 
                     if (activeRecordClass != null)
-                        tableName = getTable(prefix, activeRecordClass);
+                        tableName = getTable(prefix, activeRecordClass, activeRecordClass == context.activeRecordClass ? context.activeRecordTable : null);
 
                     if (tableName == null || tableName.isEmpty())
                         return;
 
-                    ArrayList<LookupElementBuilder> lookups = DatabaseUtils.getLookupItemsByTable(tableName, project, (PhpExpression) completionParameters.getPosition().getParent());
+                    TableSchemaCache schema = activeRecordClass != null
+                            ? DatabaseUtils.getSchemaByActiveRecordClass(activeRecordClass)
+                            : TableSchemaCache.getInstance(project);
+                    ArrayList<LookupElementBuilder> lookups = DatabaseUtils.getLookupItemsByTable(tableName, project, (PhpExpression) completionParameters.getPosition().getParent(), schema);
                     if (lookups != null && !lookups.isEmpty()) {
                         addAllElementsWithPriority(lookups, completionResultSet, 2, true); // columns
                     } else {
@@ -160,7 +151,7 @@ public class QueryCompletionProvider extends com.intellij.codeInsight.completion
                             }
                         }
                     } else if (isTabledPrefix(prefix)) {
-                        String table = getTable(prefix, null);
+                        String table = getTable(prefix, null, null);
                         lookups = DatabaseUtils.getLookupItemsByTable(table, project, expr);
                     } else {
                         lookups = DatabaseUtils.getLookupItemsTables(project, expr);
@@ -172,20 +163,21 @@ public class QueryCompletionProvider extends com.intellij.codeInsight.completion
         }
     }
 
+    /**
+     * Returns table from "table." prefix, then from ActiveRecord class. Table of ActiveRecord class is resolved
+     * only if it is not known yet.
+     */
     @Nullable
-    private String  getTable(String stringToComplete, @Nullable PhpClass activeRecordClass) {
+    private String getTable(String stringToComplete, @Nullable PhpClass activeRecordClass, @Nullable String activeRecordTable) {
         if (stringToComplete.length() > 2 && stringToComplete.contains(".")) {
-            // match "{{%table}}.[[co", "{{%table}}.[[", "{{%table}}.", "{{%table}}.col", "{{table}}.", "table.[[col",
-            // "table.[[", "table.col" and "table." at end of string and return "tn" group with table name
-            Pattern pattern = Pattern.compile(".*?((?<tn>[\\w-]+)(}{2})?)\\.((\\[\\[)?[\\w-]*)?$");
-            Matcher matcher = pattern.matcher(stringToComplete);
+            Matcher matcher = tablePrefixPattern.matcher(stringToComplete);
             if (matcher.matches()) {
                 return matcher.group("tn");
             }
         }
 
         if (activeRecordClass != null) {
-            String tableName =  DatabaseUtils.getTableByActiveRecordClass(activeRecordClass);
+            String tableName = activeRecordTable != null ? activeRecordTable : DatabaseUtils.getTableByActiveRecordClass(activeRecordClass);
             if (tableName != null) {
                 return DatabaseUtils.clearTablePrefixTags(ClassUtils.removeQuotes(tableName));
             }
@@ -195,11 +187,7 @@ public class QueryCompletionProvider extends com.intellij.codeInsight.completion
     }
 
     private boolean isTabledPrefix(String prefix) {
-        // match "{{%table}}.[[co", "{{%table}}.[[", "{{%table}}.", "{{%table}}.col", "{{table}}.", "table.[[col",
-        // "table.[[", "table.col" and "table." at end of string
-        Pattern pattern = Pattern.compile("[\\w-]+(}{2})?\\.(\\[{2})?[\\w-]*?$");
-        Matcher matcher = pattern.matcher(prefix);
-        return matcher.find();
+        return tabledPrefixPattern.matcher(prefix).find();
     }
 
     private CompletionResultSet adjustPrefixes(char[] prefixes, @NotNull CompletionResultSet completionResultSet) {
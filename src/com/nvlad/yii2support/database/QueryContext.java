@@ -0,0 +1,221 @@
+package com.nvlad.yii2support.database;
+
+import com.intellij.codeInsight.completion.CompletionUtil;
+import com.intellij.openapi.util.Key;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
+import com.jetbrains.php.PhpIndex;
+import com.jetbrains.php.lang.documentation.phpdoc.psi.PhpDocComment;
+import com.jetbrains.php.lang.psi.elements.AssignmentExpression;
+import com.jetbrains.php.lang.psi.elements.Method;
+import com.jetbrains.php.lang.psi.elements.MethodReference;
+import com.jetbrains.php.lang.psi.elements.ParameterList;
+import com.jetbrains.php.lang.psi.elements.PhpClass;
+import com.jetbrains.php.lang.psi.elements.PhpExpression;
+import com.jetbrains.php.lang.psi.elements.Variable;
+import com.nvlad.yii2support.common.ClassUtils;
+import com.nvlad.yii2support.common.DatabaseUtils;
+import com.nvlad.yii2support.utils.Yii2SupportSettings;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Resolved query builder call: called method, its class, ActiveRecord class of the call chain and its table.
+ * Cached on the method reference of the original file. Edits of the file itself drop the context only when
+ * they touch the call chain, the declaration of its receiver variable or the resolved classes, so typing inside
+ * the condition string does not resolve the chain again. Other files of resolved classes, their parents
+ * and plugin settings are tracked as dependencies.
+ */
+class QueryContext {
+    private static final Key<CachedValue<QueryContext>> CACHE_KEY = Key.create("Yii2Support.QueryContext");
+
+    private final String myChainKey;
+    private final List<PhpClass> myLocalClasses = new ArrayList<>();
+    private final List<String> myLocalClassSignatures = new ArrayList<>();
+
+    @Nullable
+    final Method method;
+    @Nullable
+    final PhpClass phpClass;
+    @Nullable
+    final PhpClass chainClass;
+    @Nullable
+    final PhpClass activeRecordClass;
+    @Nullable
+    final String activeRecordTable;
+
+    private QueryContext(String chainKey, @Nullable Method method, @Nullable PhpClass phpClass, @Nullable PhpClass chainClass,
+                         @Nullable PhpClass activeRecordClass, @Nullable String activeRecordTable) {
+        myChainKey = chainKey;
+        this.method = method;
+        this.phpClass = phpClass;
+        this.chainClass = chainClass;
+        this.activeRecordClass = activeRecordClass;
+        this.activeRecordTable = activeRecordTable;
+    }
+
+    boolean isQueryMethod() {
+        return method != null && phpClass != null;
+    }
+
+    @NotNull
+    static QueryContext get(@NotNull MethodReference methodReference) {
+        final MethodReference original = CompletionUtil.getOriginalOrSelf(methodReference);
+        final String chainKey = getChainKey(original);
+        QueryContext context = getCached(original);
+        if (!context.isUpToDate(chainKey)) {
+            // Call chain was edited in place, PSI of method reference survived reparse
+            original.putUserData(CACHE_KEY, null);
+            context = getCached(original);
+        }
+
+        return context;
+    }
+
+    @NotNull
+    private static QueryContext getCached(MethodReference methodReference) {
+        return CachedValuesManager.getManager(methodReference.getProject()).getCachedValue(methodReference, CACHE_KEY, () -> {
+            final QueryContext context = resolve(methodReference);
+            final PsiFile file = methodReference.getContainingFile();
+            final Set<Object> dependencies = new LinkedHashSet<>();
+            dependencies.add(Yii2SupportSettings.getInstance(methodReference.getProject()).getModificationTracker());
+            if (context.method != null) {
+                context.addClassFiles(dependencies, context.method.getContainingClass(), file);
+                context.addClassFiles(dependencies, context.chainClass, file);
+                context.addClassFiles(dependencies, context.activeRecordClass, file);
+            } else {
+                dependencies.add(PsiModificationTracker.MODIFICATION_COUNT);
+            }
+
+            return CachedValueProvider.Result.create(context, dependencies.toArray());
+        }, false);
+    }
+
+    @NotNull
+    private static QueryContext resolve(MethodReference methodReference) {
+        final String chainKey = getChainKey(methodReference);
+        final Method method = (Method) methodReference.resolve();
+        if (method == null) {
+            return new QueryContext(chainKey, null, null, null, null, null);
+        }
+
+        final PhpClass phpClass = method.getContainingClass();
+        if (phpClass == null) {
+            return new QueryContext(chainKey, method, null, null, null, null);
+        }
+
+        final PhpIndex index = PhpIndex.getInstance(method.getProject());
+        final PhpClass chainClass = ClassUtils.getPhpClassByCallChain(methodReference);
+        if (!(ClassUtils.isClassInheritsOrEqual(phpClass, "\\yii\\db\\Query", index)
+                || ClassUtils.isClassInheritsOrEqual(phpClass, "\\yii\\db\\QueryTrait", index)
+                || ClassUtils.isClassInherit(phpClass, "\\yii\\db\\BaseActiveRecord", index)
+                || ClassUtils.isClassInheritsOrEqual(phpClass, "\\yii\\db\\Connection", index)
+                || ClassUtils.isClassInheritsOrEqual(phpClass, "\\yii\\db\\Command", index)
+                || ClassUtils.isClassInheritsOrEqual(phpClass, "\\yii\\db\\Migration", index))) {
+            return new QueryContext(chainKey, method, null, chainClass, null, null);
+        }
+
+        PhpClass activeRecordClass = null;
+        if (ClassUtils.isClassInherit(chainClass, ClassUtils.getClass(index, "\\yii\\db\\BaseActiveRecord"))) {
+            activeRecordClass = chainClass;
+        // Calls inside ActiveQuery paired with ActiveRecord
+        } else if (ClassUtils.isClassInheritsOrEqual(chainClass, "\\yii\\db\\ActiveQuery", index)) {
+            if (chainClass.getDocComment() != null) {
+                activeRecordClass = ClassUtils.findClassInSeeTags(index, chainClass, "\\yii\\db\\BaseActiveRecord");
+            }
+        }
+
+        final String activeRecordTable = activeRecordClass != null
+                ? DatabaseUtils.getTableByActiveRecordClass(activeRecordClass)
+                : null;
+
+        return new QueryContext(chainKey, method, phpClass, chainClass, activeRecordClass, activeRecordTable);
+    }
+
+    private boolean isUpToDate(String chainKey) {
+        if (!myChainKey.equals(chainKey)
+                || (method != null && !method.isValid())
+                || (phpClass != null && !phpClass.isValid())
+                || (chainClass != null && !chainClass.isValid())
+                || (activeRecordClass != null && !activeRecordClass.isValid())) {
+            return false;
+        }
+
+        for (int i = 0; i < myLocalClasses.size(); i++) {
+            final PhpClass localClass = myLocalClasses.get(i);
+            if (!localClass.isValid() || !getClassSignature(localClass).equals(myLocalClassSignatures.get(i))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Text of method reference without arguments and declaration of the variable the call chain starts with.
+     */
+    @NotNull
+    private static String getChainKey(MethodReference methodReference) {
+        final String text = methodReference.getText();
+        final ParameterList parameterList = methodReference.getParameterList();
+        final String chainText = parameterList == null
+                ? text
+                : text.substring(0, Math.min(text.length(), parameterList.getStartOffsetInParent()));
+
+        PhpExpression receiver = methodReference.getClassReference();
+        while (receiver instanceof MethodReference) {
+            receiver = ((MethodReference) receiver).getClassReference();
+        }
+
+        if (!(receiver instanceof Variable)) {
+            return chainText;
+        }
+
+        final PsiElement declaration = ((Variable) receiver).resolve();
+        if (declaration == null) {
+            return chainText;
+        }
+
+        final PsiElement parent = declaration.getParent();
+        return chainText + "\n" + (parent instanceof AssignmentExpression ? parent.getText() : declaration.getText());
+    }
+
+    /**
+     * Parts of a class declaration which affect resolving of the chain: parent class and doc comment tags.
+     */
+    @NotNull
+    private static String getClassSignature(PhpClass phpClass) {
+        final PhpDocComment docComment = phpClass.getDocComment();
+        return phpClass.getSuperFQN() + "\n" + (docComment != null ? docComment.getText() : "");
+    }
+
+    /**
+     * Files of the class and its parents become dependencies, classes of the file with the method reference
+     * are checked by signature instead, so editing the rest of that file keeps the context.
+     */
+    private void addClassFiles(Set<Object> dependencies, @Nullable PhpClass phpClass, PsiFile ownFile) {
+        int limit = 50;
+        while (phpClass != null && limit-- > 0) {
+            final PsiFile file = phpClass.getContainingFile();
+            if (file != null && file.equals(ownFile)) {
+                if (!myLocalClasses.contains(phpClass)) {
+                    myLocalClasses.add(phpClass);
+                    myLocalClassSignatures.add(getClassSignature(phpClass));
+                }
+            } else if (file != null) {
+                dependencies.add(file);
+            }
+
+            phpClass = phpClass.getSuperClass();
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.nvlad.yii2support.database;
+
+import com.intellij.database.model.DasColumn;
+import com.intellij.database.model.DasTable;
+import com.intellij.database.psi.DbDataSource;
+import com.intellij.database.psi.DbPsiFacade;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Key;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.util.SmartList;
+import com.nvlad.yii2support.utils.Yii2SupportSettings;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tables of project data sources keyed by normalized (prefix-stripped, lower-cased) name.
+ * Rebuilt when database model or plugin settings change.
+ * Lookups for a Yii connection component use {@link #forConnection(String)}, which is limited to data sources
+ * of the connection.
+ */
+public class TableSchemaCache {
+    private static final Key<CachedValue<TableSchemaCache>> CACHE_KEY = Key.create("Yii2Support.TableSchemaCache");
+    public static final String DEFAULT_CONNECTION = "db";
+
+    @NotNull
+    public static TableSchemaCache getInstance(@NotNull Project project) {
+        return CachedValuesManager.getManager(project).getCachedValue(project, CACHE_KEY, () -> CachedValueProvider.Result.create(
+                new TableSchemaCache(project),
+                DbPsiFacade.getInstance(project).getModificationTracker(),
+                Yii2SupportSettings.getInstance(project).getModificationTracker()
+        ), false);
+    }
+
+    @NotNull
+    public static TableSchemaCache getInstance(@NotNull Project project, @Nullable String connection) {
+        return getInstance(project).forConnection(connection);
+    }
+
+    private final String myTablePrefix;
+    private final Map<String, String> myDataSourceMap;
+    private final List<DbDataSource> myDataSources;
+    private final List<DasTable> myTables = new ArrayList<>();
+    private final Map<String, List<DasTable>> myTablesByName = new HashMap<>();
+    private final Map<DasTable, List<DasColumn>> myColumns;
+    private final Map<String, TableSchemaCache> myConnections = new ConcurrentHashMap<>();
+
+    private TableSchemaCache(Project project) {
+        final Yii2SupportSettings settings = Yii2SupportSettings.getInstance(project);
+        myTablePrefix = settings.tablePrefix;
+        myDataSourceMap = new HashMap<>(settings.dataSourceMap);
+        myDataSources = new ArrayList<>(DbPsiFacade.getInstance(project).getDataSources());
+        myColumns = new ConcurrentHashMap<>();
+        addTables(myDataSources);
+    }
+
+    private TableSchemaCache(TableSchemaCache parent, List<DbDataSource> dataSources) {
+        myTablePrefix = parent.myTablePrefix;
+        myDataSourceMap = parent.myDataSourceMap;
+        myDataSources = dataSources;
+        myColumns = parent.myColumns;
+        addTables(dataSources);
+    }
+
+    private void addTables(List<DbDataSource> dataSources) {
+        for (DbDataSource source : dataSources) {
+            for (DasTable table : source.getModel().traverser().filter(DasTable.class)) {
+                myTables.add(table);
+                myTablesByName.computeIfAbsent(normalize(table.getName()), k -> new SmartList<>()).add(table);
+            }
+        }
+    }
+
+    /**
+     * Returns tables of data sources used by Yii connection component, "db" if connection is null.
+     * Data source is taken from "Data Sources" settings, then by data source name equal to connection id.
+     * Unmapped connections use all data sources.
+     */
+    @NotNull
+    public TableSchemaCache forConnection(@Nullable String connection) {
+        if (connection == null || connection.isEmpty()) {
+            connection = DEFAULT_CONNECTION;
+        }
+
+        return myConnections.computeIfAbsent(connection, key -> {
+            final List<DbDataSource> dataSources = getDataSources(key);
+            return dataSources.size() == myDataSources.size() ? this : new TableSchemaCache(this, dataSources);
+        });
+    }
+
+    /**
+     * Returns data sources used by Yii connection component, all data sources for unmapped connection.
+     */
+    @NotNull
+    public List<DbDataSource> getDataSources(@NotNull String connection) {
+        final String dataSourceName = myDataSourceMap.getOrDefault(connection, connection);
+        final List<DbDataSource> result = new SmartList<>();
+        for (DbDataSource dataSource : myDataSources) {
+            if (dataSource.getName().equals(dataSourceName)) {
+                result.add(dataSource);
+            }
+        }
+
+        return result.isEmpty() ? myDataSources : result;
+    }
+
+    @NotNull
+    public List<DasTable> getTables() {
+        return Collections.unmodifiableList(myTables);
+    }
+
+    /**
+     * Returns tables with exactly one of given names, in data source order.
+     */
+    @NotNull
+    public List<DasTable> findTables(@NotNull String... names) {
+        List<DasTable> result = new SmartList<>();
+        Set<String> keys = new LinkedHashSet<>();
+        for (String name : names) {
+            keys.add(normalize(name));
+        }
+
+        for (String key : keys) {
+            for (DasTable table : myTablesByName.getOrDefault(key, Collections.emptyList())) {
+                for (String name : names) {
+                    if (table.getName().equals(name)) {
+                        result.add(table);
+                        break;
+                    }
+                }
+            }
+        }
+
+        return result;
+    }
+
+    @NotNull
+    public List<DasColumn> getColumns(@NotNull DasTable table) {
+        return myColumns.computeIfAbsent(table, t -> new TableInfo(t).getColumns());
+    }
+
+    @NotNull
+    private String normalize(@NotNull String name) {
+        if (!myTablePrefix.isEmpty() && name.startsWith(myTablePrefix)) {
+            name = name.substring(myTablePrefix.length());
+        }
+
+        return name.toLowerCase(Locale.ROOT);
+    }
+}
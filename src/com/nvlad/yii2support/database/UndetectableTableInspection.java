@@ -32,7 +32,7 @@ public class UndetectableTableInspection extends PhpInspection {
                     String table = DatabaseUtils.getTableByActiveRecordClass(clazz);
                     if (table == null) {
                         problemsHolder.registerProblem(clazz.getFirstChild(), "Can not detect database table for class " + clazz.getFQN(), ProblemHighlightType.WEAK_WARNING);
-                    } else if (! DatabaseUtils.isTableExists(table, problemsHolder.getProject())) {
+                    } else if (! DatabaseUtils.isTableExists(table, DatabaseUtils.getSchemaByActiveRecordClass(clazz))) {
                         problemsHolder.registerProblem(clazz.getFirstChild(), "Table '" + table + "' not found in database connections", ProblemHighlightType.WEAK_WARNING);
                     }
                 }
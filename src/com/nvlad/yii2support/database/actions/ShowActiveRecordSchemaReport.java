@@ -0,0 +1,90 @@
+package com.nvlad.yii2support.database.actions;
+
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.fileChooser.FileChooserFactory;
+import com.intellij.openapi.fileChooser.FileSaverDescriptor;
+import com.intellij.openapi.fileEditor.FileEditorManager;
+import com.intellij.openapi.fileTypes.PlainTextFileType;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.Messages;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.VirtualFileWrapper;
+import com.intellij.testFramework.LightVirtualFile;
+import com.nvlad.yii2support.common.DatabaseUtils;
+import com.nvlad.yii2support.database.ActiveRecordSchemaReport;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+public class ShowActiveRecordSchemaReport extends AnAction {
+    private static final String TITLE = "Yii2 ActiveRecord Schema Report";
+    private static final String FILE_NAME = "activerecord-schema.tsv";
+    private static final int OPEN = 0;
+    private static final int EXPORT = 1;
+
+    @Override
+    public void update(@NotNull AnActionEvent e) {
+        final Project project = e.getProject();
+        e.getPresentation().setEnabled(project != null && !DumbService.isDumb(project) && DatabaseUtils.HasConnections(project));
+    }
+
+    @Override
+    public void actionPerformed(@NotNull AnActionEvent e) {
+        final Project project = e.getProject();
+        if (project == null) {
+            return;
+        }
+
+        final ActiveRecordSchemaReport report = new ActiveRecordSchemaReport(project);
+        ProgressManager.getInstance().run(new Task.Backgroundable(project, TITLE, true) {
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                report.run(indicator);
+            }
+
+            @Override
+            public void onSuccess() {
+                showReport(project, report);
+            }
+        });
+    }
+
+    private static void showReport(Project project, ActiveRecordSchemaReport report) {
+        final String[] options = {"Open", "Export...", "Close"};
+        final int choice = Messages.showDialog(project, report.getSummary(), TITLE, options,
+                report.getProblems().isEmpty() ? options.length - 1 : OPEN, Messages.getInformationIcon());
+
+        switch (choice) {
+            case OPEN:
+                final LightVirtualFile file = new LightVirtualFile(FILE_NAME, PlainTextFileType.INSTANCE, report.toText());
+                FileEditorManager.getInstance(project).openFile(file, true);
+                break;
+            case EXPORT:
+                exportReport(project, report);
+                break;
+        }
+    }
+
+    private static void exportReport(Project project, ActiveRecordSchemaReport report) {
+        final FileSaverDescriptor descriptor = new FileSaverDescriptor(TITLE, "Save report as tab separated values", "tsv");
+        final VirtualFileWrapper wrapper = FileChooserFactory.getInstance()
+                .createSaveFileDialog(descriptor, project)
+                .save((VirtualFile) null, FILE_NAME);
+        if (wrapper == null) {
+            return;
+        }
+
+        try {
+            Files.write(wrapper.getFile().toPath(), report.toText().getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            Messages.showErrorDialog(project, e.getMessage(), TITLE);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.nvlad.yii2support.database.entities;
+
+import java.util.Objects;
+
+/**
+ * Table expression returned by "tableName()" method and connection id returned by "getDb()" method
+ * declared in ActiveRecord class.
+ */
+public class ActiveRecordTable {
+    public enum Kind {
+        /**
+         * Table name in {@link #value}, may be quoted.
+         */
+        Literal,
+        /**
+         * Constant {@link #value} of {@link #constantClass}.
+         */
+        Constant,
+        /**
+         * Method returns expression which can not be evaluated.
+         */
+        Unknown,
+        /**
+         * Class does not declare "tableName()" method.
+         */
+        Undeclared,
+    }
+
+    public Kind kind;
+    public String value;
+    public String constantClass;
+    /**
+     * Yii connection component id, null if class does not declare "getDb()" method or it can not be evaluated.
+     */
+    public String connection;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        ActiveRecordTable that = (ActiveRecordTable) o;
+        return kind == that.kind
+                && Objects.equals(value, that.value)
+                && Objects.equals(constantClass, that.constantClass)
+                && Objects.equals(connection, that.connection);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(kind, value, constantClass, connection);
+    }
+}
@@ -0,0 +1,234 @@
+package com.nvlad.yii2support.database.index;
+
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.util.indexing.*;
+import com.intellij.util.io.DataExternalizer;
+import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.IOUtil;
+import com.intellij.util.io.KeyDescriptor;
+import com.jetbrains.php.lang.PhpFileType;
+import com.jetbrains.php.lang.psi.elements.*;
+import com.nvlad.yii2support.common.FileUtil;
+import com.nvlad.yii2support.database.entities.ActiveRecordTable;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Table expressions and connection ids of classes which declare "tableName()" or "getDb()" methods, keyed by class FQN.
+ * Constants of the same class are evaluated while indexing, other constants are resolved on read.
+ */
+public class ActiveRecordTableIndex extends FileBasedIndexExtension<String, ActiveRecordTable> {
+    public static final ID<String, ActiveRecordTable> identity = ID.create("Yii2Support.ActiveRecordTableIndex");
+    private final ActiveRecordTableDataIndexer myDataIndexer;
+    private final ActiveRecordTableDataExternalizer myDataExternalizer;
+    private final FileBasedIndex.InputFilter myInputFilter;
+
+    public ActiveRecordTableIndex() {
+        myDataIndexer = new ActiveRecordTableDataIndexer();
+        myDataExternalizer = new ActiveRecordTableDataExternalizer();
+        myInputFilter = new DefaultFileTypeSpecificInputFilter(PhpFileType.INSTANCE);
+    }
+
+    /**
+     * Returns declarations of the class itself, null if the class declares neither "tableName()" nor "getDb()".
+     */
+    @Nullable
+    public static ActiveRecordTable getTable(@NotNull PhpClass phpClass) {
+        final VirtualFile virtualFile = FileUtil.getVirtualFile(phpClass.getContainingFile());
+        final List<ActiveRecordTable> tables = FileBasedIndex.getInstance().getValues(identity,
+                phpClass.getFQN(),
+                GlobalSearchScope.fileScope(phpClass.getProject(), virtualFile));
+
+        return tables.isEmpty() ? null : tables.get(0);
+    }
+
+    @NotNull
+    @Override
+    public ID<String, ActiveRecordTable> getName() {
+        return identity;
+    }
+
+    @NotNull
+    @Override
+    public DataIndexer<String, ActiveRecordTable, FileContent> getIndexer() {
+        return myDataIndexer;
+    }
+
+    @NotNull
+    @Override
+    public KeyDescriptor<String> getKeyDescriptor() {
+        return EnumeratorStringDescriptor.INSTANCE;
+    }
+
+    @NotNull
+    @Override
+    public DataExternalizer<ActiveRecordTable> getValueExternalizer() {
+        return myDataExternalizer;
+    }
+
+    @Override
+    public int getVersion() {
+        return 2;
+    }
+
+    @NotNull
+    @Override
+    public FileBasedIndex.InputFilter getInputFilter() {
+        return myInputFilter;
+    }
+
+    @Override
+    public boolean dependsOnFileContent() {
+        return true;
+    }
+
+    private static class ActiveRecordTableDataIndexer implements DataIndexer<String, ActiveRecordTable, FileContent> {
+        @Override
+        @NotNull
+        public Map<String, ActiveRecordTable> map(@NotNull final FileContent inputData) {
+            final CharSequence content = inputData.getContentAsText();
+            if (!StringUtil.contains(content, "tableName") && !StringUtil.contains(content, "getDb")) {
+                return Collections.emptyMap();
+            }
+
+            final Map<String, ActiveRecordTable> map = new HashMap<>();
+            for (PhpClass phpClass : PsiTreeUtil.findChildrenOfType(inputData.getPsiFile(), PhpClass.class)) {
+                if (phpClass.isInterface() || phpClass.isTrait()) {
+                    continue;
+                }
+
+                final Method tableNameMethod = phpClass.findOwnMethodByName("tableName");
+                final Method getDbMethod = phpClass.findOwnMethodByName("getDb");
+                if (tableNameMethod == null && getDbMethod == null) {
+                    continue;
+                }
+
+                final ActiveRecordTable table = getTable(phpClass, tableNameMethod);
+                if (getDbMethod != null) {
+                    table.connection = getConnection(getDbMethod);
+                }
+
+                map.put(phpClass.getFQN(), table);
+            }
+
+            return map;
+        }
+
+        @NotNull
+        private static ActiveRecordTable getTable(PhpClass phpClass, @Nullable Method method) {
+            final ActiveRecordTable table = new ActiveRecordTable();
+            if (method == null) {
+                table.kind = ActiveRecordTable.Kind.Undeclared;
+                table.value = "";
+                return table;
+            }
+
+            for (PhpReturn phpReturn : PsiTreeUtil.findChildrenOfType(method, PhpReturn.class)) {
+                final PsiElement argument = phpReturn.getFirstPsiChild();
+                if (argument instanceof StringLiteralExpression) {
+                    table.kind = ActiveRecordTable.Kind.Literal;
+                    table.value = argument.getText();
+                    return table;
+                }
+
+                if (argument instanceof ClassConstantReference) {
+                    final ClassConstantReference reference = (ClassConstantReference) argument;
+                    final PhpExpression classReference = reference.getClassReference();
+                    if (reference.getName() == null || !(classReference instanceof ClassReference)) {
+                        continue;
+                    }
+
+                    final String className = classReference.getText();
+                    if (className.equals("self") || className.equals("static")) {
+                        final Field constant = phpClass.findOwnFieldByName(reference.getName(), true);
+                        if (constant != null && constant.getDefaultValue() instanceof StringLiteralExpression) {
+                            table.kind = ActiveRecordTable.Kind.Literal;
+                            table.value = ((StringLiteralExpression) constant.getDefaultValue()).getContents();
+                            return table;
+                        }
+                    }
+
+                    table.kind = ActiveRecordTable.Kind.Constant;
+                    table.value = reference.getName();
+                    table.constantClass = className.equals("self") || className.equals("static")
+                            ? phpClass.getFQN()
+                            : ((ClassReference) classReference).getFQN();
+                    return table;
+                }
+            }
+
+            table.kind = ActiveRecordTable.Kind.Unknown;
+            table.value = "";
+            return table;
+        }
+
+        /**
+         * Evaluates "return Yii::$app->db2;" and "return Yii::$app->get('db2');".
+         */
+        @Nullable
+        private static String getConnection(Method method) {
+            for (PhpReturn phpReturn : PsiTreeUtil.findChildrenOfType(method, PhpReturn.class)) {
+                final PsiElement argument = phpReturn.getFirstPsiChild();
+                if (argument instanceof FieldReference && isApplicationReference(((FieldReference) argument).getClassReference())) {
+                    return ((FieldReference) argument).getName();
+                }
+
+                if (argument instanceof MethodReference) {
+                    final MethodReference reference = (MethodReference) argument;
+                    final PsiElement[] parameters = reference.getParameters();
+                    if ("get".equals(reference.getName())
+                            && isApplicationReference(reference.getClassReference())
+                            && parameters.length > 0
+                            && parameters[0] instanceof StringLiteralExpression) {
+                        return ((StringLiteralExpression) parameters[0]).getContents();
+                    }
+                }
+            }
+
+            return null;
+        }
+
+        private static boolean isApplicationReference(@Nullable PhpExpression expression) {
+            return expression instanceof FieldReference && "app".equals(((FieldReference) expression).getName());
+        }
+    }
+
+    private static class ActiveRecordTableDataExternalizer implements DataExternalizer<ActiveRecordTable> {
+        @Override
+        public void save(@NotNull DataOutput dataOutput, @NotNull ActiveRecordTable table) throws IOException {
+            dataOutput.writeByte(table.kind.ordinal());
+            IOUtil.writeUTF(dataOutput, table.value);
+            if (table.kind == ActiveRecordTable.Kind.Constant) {
+                IOUtil.writeUTF(dataOutput, table.constantClass);
+            }
+            IOUtil.writeUTF(dataOutput, table.connection != null ? table.connection : "");
+        }
+
+        @Override
+        @NotNull
+        public ActiveRecordTable read(@NotNull DataInput dataInput) throws IOException {
+            final ActiveRecordTable table = new ActiveRecordTable();
+            table.kind = ActiveRecordTable.Kind.values()[dataInput.readByte()];
+            table.value = IOUtil.readUTF(dataInput);
+            if (table.kind == ActiveRecordTable.Kind.Constant) {
+                table.constantClass = IOUtil.readUTF(dataInput);
+            }
+            final String connection = IOUtil.readUTF(dataInput);
+            table.connection = connection.isEmpty() ? null : connection;
+
+            return table;
+        }
+    }
+}
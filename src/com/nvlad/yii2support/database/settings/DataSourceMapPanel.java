@@ -0,0 +1,52 @@
+package com.nvlad.yii2support.database.settings;
+
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.DialogWrapper;
+import com.intellij.ui.AddEditRemovePanel;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.AbstractMap;
+import java.util.LinkedList;
+import java.util.Map;
+
+/**
+ * Maps Yii connection component ids ("db", "db2") to IDE data sources.
+ */
+public class DataSourceMapPanel extends AddEditRemovePanel<Map.Entry<String, String>> {
+    private final Project myProject;
+
+    DataSourceMapPanel(Project project) {
+        super(new DataSourceMapTableModel(), new LinkedList<>(), "Data Sources");
+
+        myProject = project;
+    }
+
+    @Nullable
+    @Override
+    protected Map.Entry<String, String> addItem() {
+        return showDialog("db", "");
+    }
+
+    @Override
+    protected boolean removeItem(Map.Entry<String, String> entry) {
+        return true;
+    }
+
+    @Nullable
+    @Override
+    protected Map.Entry<String, String> editItem(Map.Entry<String, String> entry) {
+        return showDialog(entry.getKey(), entry.getValue());
+    }
+
+    @Nullable
+    private Map.Entry<String, String> showDialog(String connection, String dataSource) {
+        EditDataSourceMapDialog dialog = new EditDataSourceMapDialog(myProject, connection, dataSource);
+        dialog.show();
+
+        if (dialog.getExitCode() == DialogWrapper.CANCEL_EXIT_CODE) {
+            return null;
+        }
+
+        return new AbstractMap.SimpleEntry<>(dialog.getConnection(), dialog.getDataSource());
+    }
+}
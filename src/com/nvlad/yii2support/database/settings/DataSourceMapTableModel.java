@@ -0,0 +1,24 @@
+package com.nvlad.yii2support.database.settings;
+
+import com.intellij.ui.AddEditRemovePanel;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+
+public class DataSourceMapTableModel extends AddEditRemovePanel.TableModel<Map.Entry<String, String>> {
+    @Override
+    public int getColumnCount() {
+        return 2;
+    }
+
+    @Nullable
+    @Override
+    public String getColumnName(int i) {
+        return i == 0 ? "Connection" : "Data Source";
+    }
+
+    @Override
+    public Object getField(Map.Entry<String, String> entry, int i) {
+        return i == 0 ? entry.getKey() : entry.getValue();
+    }
+}
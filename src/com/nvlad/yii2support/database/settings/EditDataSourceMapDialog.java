@@ -0,0 +1,85 @@
+package com.nvlad.yii2support.database.settings;
+
+import com.intellij.database.psi.DbDataSource;
+import com.intellij.database.psi.DbPsiFacade;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.ComboBox;
+import com.intellij.openapi.ui.DialogWrapper;
+import com.intellij.openapi.ui.ValidationInfo;
+import com.intellij.ui.components.JBLabel;
+import com.intellij.ui.components.JBPanel;
+import com.intellij.ui.components.JBTextField;
+import org.jdesktop.swingx.VerticalLayout;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.swing.*;
+import java.awt.*;
+
+public class EditDataSourceMapDialog extends DialogWrapper {
+    private final JBPanel myPanel;
+    private final JBTextField myConnectionTextField;
+    private final ComboBox<String> myDataSourceComboBox;
+
+    EditDataSourceMapDialog(@NotNull Project project, String connection, String dataSource) {
+        super(project);
+        setTitle("Edit Data Source Map");
+
+        this.setResizable(false);
+
+        myConnectionTextField = new JBTextField(connection);
+        myDataSourceComboBox = new ComboBox<>();
+        myDataSourceComboBox.setEditable(true);
+        for (DbDataSource source : DbPsiFacade.getInstance(project).getDataSources()) {
+            myDataSourceComboBox.addItem(source.getName());
+        }
+        myDataSourceComboBox.setSelectedItem(dataSource);
+
+        myPanel = new JBPanel();
+        myPanel.setLayout(new VerticalLayout(5));
+        myPanel.setMinimumSize(new Dimension(300, -1));
+        myPanel.add(new JBLabel("Connection component:"));
+        myPanel.add(myConnectionTextField);
+        myPanel.add(new JBLabel("Data source:"));
+        myPanel.add(myDataSourceComboBox);
+
+        init();
+    }
+
+    @NotNull
+    public String getConnection() {
+        return myConnectionTextField.getText().trim();
+    }
+
+    @NotNull
+    public String getDataSource() {
+        final Object item = myDataSourceComboBox.getEditor().getItem();
+        return item == null ? "" : item.toString().trim();
+    }
+
+    @Nullable
+    @Override
+    protected ValidationInfo doValidate() {
+        if (getConnection().isEmpty()) {
+            return new ValidationInfo("Connection component id is required", myConnectionTextField);
+        }
+
+        if (getDataSource().isEmpty()) {
+            return new ValidationInfo("Data source is required", myDataSourceComboBox);
+        }
+
+        return null;
+    }
+
+    @Nullable
+    @Override
+    protected JComponent createCenterPanel() {
+        return myPanel;
+    }
+
+    @Nullable
+    @Override
+    public JComponent getPreferredFocusedComponent() {
+        return myConnectionTextField;
+    }
+}
@@ -15,8 +15,10 @@ import org.jetbrains.annotations.Nullable;
 import javax.swing.*;
 import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
+import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 public class SettingsForm implements Configurable {
     final private Project myProject;
@@ -25,6 +27,7 @@ public class SettingsForm implements Configurable {
     private JCheckBox insertTableNamesWithCheckBox;
     private JPanel tablePanel;
     private JPanel migrationPanel;
+    private JPanel dataSourcePanel;
     private Yii2SupportSettings settings;
 
     public SettingsForm(Project project) {
@@ -76,6 +79,7 @@ public class SettingsForm implements Configurable {
     public boolean isModified() {
         return !tablePrefixTextbox.getText().equals(settings.tablePrefix)
                 || settings.insertWithTablePrefix != insertTableNamesWithCheckBox.isSelected()
+                || !getDataSourceMapEntries().equals(((DataSourceMapPanel) dataSourcePanel).getData())
                 || !getCommandList().equals(((MigrationPanel) migrationPanel).getData());
     }
 
@@ -83,6 +87,11 @@ public class SettingsForm implements Configurable {
     public void apply() {
         settings.tablePrefix = tablePrefixTextbox.getText();
         settings.insertWithTablePrefix = insertTableNamesWithCheckBox.isSelected();
+        settings.dataSourceMap.clear();
+        for (Map.Entry<String, String> entry : ((DataSourceMapPanel) dataSourcePanel).getData()) {
+            settings.dataSourceMap.put(entry.getKey(), entry.getValue());
+        }
+        settings.incModificationCount();
 
         List<MigrateCommand> newCommandList = new SmartList<>();
         for (MigrateCommand command : ((MigrationPanel) migrationPanel).getData()) {
@@ -92,7 +101,7 @@ public class SettingsForm implements Configurable {
         if (!settings.migrateCommands.equals(newCommandList)) {
             settings.migrateCommands = newCommandList;
 
-            MigrationService.getInstance(myProject).sync();
+            MigrationService.getInstance(myProject).scheduleSync();
         }
     }
 
@@ -103,12 +112,15 @@ public class SettingsForm implements Configurable {
         }
 
         migrationPanel = new MigrationPanel(myProject, commandList);
+        dataSourcePanel = new DataSourceMapPanel(myProject);
+        ((DataSourceMapPanel) dataSourcePanel).setData(getDataSourceMapEntries());
     }
 
     @Override
     public void reset() {
         tablePrefixTextbox.setText(settings.tablePrefix);
         insertTableNamesWithCheckBox.setSelected(settings.insertWithTablePrefix);
+        ((DataSourceMapPanel) dataSourcePanel).setData(getDataSourceMapEntries());
 //        migrationTable.setText(settings.migrationTable);
 //        dbConnection.setText(settings.dbConnection);
         adjustInputs();
@@ -126,6 +138,15 @@ public class SettingsForm implements Configurable {
         return settings;
     }
 
+    private List<Map.Entry<String, String>> getDataSourceMapEntries() {
+        List<Map.Entry<String, String>> entries = new ArrayList<>();
+        for (Map.Entry<String, String> entry : getSettings().dataSourceMap.entrySet()) {
+            entries.add(new AbstractMap.SimpleEntry<>(entry));
+        }
+
+        return entries;
+    }
+
     private List<MigrateCommand> getCommandList() {
         return getSettings().migrateCommands;
     }
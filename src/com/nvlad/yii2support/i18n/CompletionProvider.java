@@ -5,8 +5,11 @@ import com.intellij.codeInsight.completion.CompletionResultSet;
 import com.intellij.psi.PsiElement;
 import com.intellij.util.ProcessingContext;
 import com.jetbrains.php.lang.psi.elements.*;
+import com.nvlad.yii2support.i18n.entities.MessageInfo;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Map;
+
 /**
  * Created by NVlad on 06.01.2017.
  */
@@ -54,8 +57,8 @@ class CompletionProvider extends com.intellij.codeInsight.completion.CompletionP
     }
 
     private void fillMessages(PhpPsiElement element, String category, CompletionResultSet result) {
-        for (ArrayHashElement message : Util.getMessages(element, category)) {
-            result.addElement(new MessageLookupElement(element, message));
+        for (Map.Entry<String, MessageInfo> message : Util.getMessages(element, category).entrySet()) {
+            result.addElement(new MessageLookupElement(element, message.getKey(), message.getValue()));
         }
     }
 }
@@ -4,8 +4,10 @@ import com.intellij.codeInsight.completion.InsertionContext;
 import com.intellij.codeInsight.lookup.AutoCompletionPolicy;
 import com.intellij.codeInsight.lookup.LookupElement;
 import com.intellij.codeInsight.lookup.LookupElementPresentation;
+import com.intellij.icons.AllIcons;
 import com.intellij.psi.PsiElement;
 import com.jetbrains.php.lang.psi.elements.*;
+import com.nvlad.yii2support.i18n.entities.MessageInfo;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.ArrayList;
@@ -16,40 +18,37 @@ import java.util.regex.Pattern;
  * Created by NVlad on 06.01.2017.
  */
 class MessageLookupElement extends LookupElement {
+    private static final Pattern pointers = Pattern.compile("\\{([\\w\\d]+)[},]", Pattern.MULTILINE | Pattern.UNICODE_CASE);
+
     final private PhpPsiElement myElement;
-    final private ArrayHashElement myMessage;
+    final private String myMessage;
+    final private MessageInfo myMessageInfo;
 
-    MessageLookupElement(PhpPsiElement element, ArrayHashElement message) {
+    MessageLookupElement(PhpPsiElement element, String message, MessageInfo messageInfo) {
         myElement = element;
         myMessage = message;
+        myMessageInfo = messageInfo;
     }
 
     @NotNull
     @Override
     public String getLookupString() {
-        return Util.PhpExpressionValue((PhpExpression) myMessage.getKey());
+        return myMessage;
     }
 
     @Override
     public void renderElement(LookupElementPresentation presentation) {
         super.renderElement(presentation);
 
-        if (myMessage.getKey() instanceof StringLiteralExpression) {
-            presentation.setItemText(((StringLiteralExpression) myMessage.getKey()).getContents());
-            presentation.setIcon(myMessage.getKey().getIcon(0));
-        }
-
-        PhpExpression value = (PhpExpression) myMessage.getValue();
-        if (value != null) {
-            String text = Util.PhpExpressionValue(value);
+        presentation.setItemText(myMessage);
+        presentation.setIcon(AllIcons.Nodes.Variable);
 
-            if (!text.isEmpty()) {
-                presentation.setTailText(" = " + text, true);
-            }
-
-            presentation.setTypeText(value.getType().toString());
-            presentation.setTypeGrayed(true);
+        if (!myMessageInfo.translation.isEmpty()) {
+            presentation.setTailText(" = " + myMessageInfo.translation, true);
         }
+
+        presentation.setTypeText(myMessageInfo.language);
+        presentation.setTypeGrayed(true);
     }
 
     @Override
@@ -60,13 +59,10 @@ class MessageLookupElement extends LookupElement {
         int blockStart = context.getSelectionEndOffset();
         context.getDocument().deleteString(blockStart, blockStart + suffixLength);
 
-        if (myMessage.getValue() instanceof StringLiteralExpression) {
+        if (!myMessageInfo.translation.isEmpty()) {
             ArrayList<String> matches = new ArrayList<>();
 
-            StringLiteralExpression value = (StringLiteralExpression) myMessage.getValue();
-
-            Pattern pointers = Pattern.compile("\\{([\\w\\d]+)[},]", Pattern.MULTILINE | Pattern.UNICODE_CASE);
-            Matcher matcher = pointers.matcher(value.getContents());
+            Matcher matcher = pointers.matcher(myMessageInfo.translation);
             while (matcher.find()) {
                 String match = matcher.group(1);
 
@@ -3,13 +3,20 @@ package com.nvlad.yii2support.i18n;
 import com.intellij.psi.PsiDirectory;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiFile;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.search.GlobalSearchScopesCore;
+import com.intellij.util.indexing.FileBasedIndex;
 import com.jetbrains.php.lang.psi.elements.*;
+import com.nvlad.yii2support.i18n.entities.MessageInfo;
+import com.nvlad.yii2support.i18n.index.MessageFileIndex;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 /**
  * Created by NVlad on 06.01.2017.
@@ -27,19 +34,29 @@ class Util {
         return categories.toArray(new PsiElement[0]);
     }
 
+    /**
+     * Returns messages of category from all languages of nearest "messages" directory.
+     * For a message translated into several languages the first language in alphabetical order is used.
+     */
     @NotNull
-    static ArrayHashElement[] getMessages(PhpPsiElement element, String category) {
-        ArrayList<ArrayHashElement> messages = new ArrayList<>();
+    static Map<String, MessageInfo> getMessages(PhpPsiElement element, String category) {
+        final Map<String, MessageInfo> messages = new TreeMap<>();
+        final PsiDirectory directory = getMessagesDirectory(element);
+        if (directory == null) {
+            return messages;
+        }
 
-        PsiDirectory directory = getDirectory(element);
-        if (directory != null) {
-            PsiFile file = directory.findFile(category.concat(".php"));
-            if (file != null) {
-                messages.addAll(loadMessagesFromFile(file));
+        final GlobalSearchScope scope = GlobalSearchScopesCore.directoryScope(directory, true);
+        for (List<MessageInfo> languageMessages : FileBasedIndex.getInstance().getValues(MessageFileIndex.identity, category, scope)) {
+            for (MessageInfo messageInfo : languageMessages) {
+                final MessageInfo current = messages.get(messageInfo.message);
+                if (current == null || current.language.compareTo(messageInfo.language) > 0) {
+                    messages.put(messageInfo.message, messageInfo);
+                }
             }
         }
 
-        return messages.toArray(new ArrayHashElement[0]);
+        return messages;
     }
 //
 //    public String[] getMessagePointers(String category, String message) {
@@ -91,6 +108,16 @@ class Util {
 
     @Nullable
     private static PsiDirectory getDirectory(PsiElement element) {
+        PsiDirectory directory = getMessagesDirectory(element);
+        if (directory != null && directory.getSubdirectories().length > 0) {
+            return directory.getSubdirectories()[0];
+        }
+
+        return null;
+    }
+
+    @Nullable
+    private static PsiDirectory getMessagesDirectory(PsiElement element) {
         PsiFile file = element.getContainingFile().getOriginalFile();
         String filename = file.getName();
         PsiDirectory directory = file.getParent();
@@ -112,35 +139,9 @@ class Util {
             }
         }
         if (directory != null) {
-            directory = directory.findSubdirectory("messages");
-            if (directory != null && directory.getSubdirectories().length > 0) {
-                directory = directory.getSubdirectories()[0];
-                return directory;
-            }
+            return directory.findSubdirectory("messages");
         }
 
         return null;
     }
-
-    private static Collection<ArrayHashElement> loadMessagesFromFile(PsiFile file) {
-        ArrayList<ArrayHashElement> result = new ArrayList<>();
-
-        GroupStatement groupStatement = (GroupStatement) file.getFirstChild();
-        for (PsiElement element : groupStatement.getChildren()) {
-            if (element instanceof PhpReturn) {
-                if (((PhpReturn) element).getFirstPsiChild() instanceof ArrayCreationExpression) {
-                    ArrayCreationExpression array = (ArrayCreationExpression) ((PhpReturn) element).getFirstPsiChild();
-                    if (array != null) {
-                        for (ArrayHashElement hashElement : array.getHashElements()) {
-                            result.add(hashElement);
-                        }
-                    }
-                }
-
-                break;
-            }
-        }
-
-        return result;
-    }
 }
@@ -0,0 +1,29 @@
+package com.nvlad.yii2support.i18n.entities;
+
+import java.util.Objects;
+
+public class MessageInfo {
+    public String message;
+    public String language;
+    public String translation;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        MessageInfo that = (MessageInfo) o;
+        return Objects.equals(message, that.message)
+                && Objects.equals(language, that.language)
+                && Objects.equals(translation, that.translation);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(message, language, translation);
+    }
+}
@@ -0,0 +1,183 @@
+package com.nvlad.yii2support.i18n.index;
+
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.util.indexing.*;
+import com.intellij.util.io.DataExternalizer;
+import com.intellij.util.io.DataInputOutputUtil;
+import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.IOUtil;
+import com.intellij.util.io.KeyDescriptor;
+import com.jetbrains.php.lang.PhpFileType;
+import com.jetbrains.php.lang.psi.elements.*;
+import com.nvlad.yii2support.i18n.entities.MessageInfo;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Messages of catalogs ("messages/{language}/{category}.php") keyed by category, one value per language file.
+ */
+public class MessageFileIndex extends FileBasedIndexExtension<String, List<MessageInfo>> {
+    public static final ID<String, List<MessageInfo>> identity = ID.create("Yii2Support.MessageFileIndex");
+    private static final String MESSAGES_DIRECTORY = "/messages/";
+
+    private final MessageDataIndexer myMessageDataIndexer;
+    private final MessageDataExternalizer myMessageDataExternalizer;
+    private final FileBasedIndex.InputFilter myInputFilter;
+
+    public MessageFileIndex() {
+        myMessageDataIndexer = new MessageDataIndexer();
+        myMessageDataExternalizer = new MessageDataExternalizer();
+        myInputFilter = new DefaultFileTypeSpecificInputFilter(PhpFileType.INSTANCE) {
+            @Override
+            public boolean acceptInput(@NotNull VirtualFile file) {
+                return getCatalogPath(file.getPath()) != null;
+            }
+        };
+    }
+
+    @NotNull
+    @Override
+    public ID<String, List<MessageInfo>> getName() {
+        return identity;
+    }
+
+    @NotNull
+    @Override
+    public DataIndexer<String, List<MessageInfo>, FileContent> getIndexer() {
+        return myMessageDataIndexer;
+    }
+
+    @NotNull
+    @Override
+    public KeyDescriptor<String> getKeyDescriptor() {
+        return EnumeratorStringDescriptor.INSTANCE;
+    }
+
+    @NotNull
+    @Override
+    public DataExternalizer<List<MessageInfo>> getValueExternalizer() {
+        return myMessageDataExternalizer;
+    }
+
+    @Override
+    public int getVersion() {
+        return 2;
+    }
+
+    @NotNull
+    @Override
+    public FileBasedIndex.InputFilter getInputFilter() {
+        return myInputFilter;
+    }
+
+    @Override
+    public boolean dependsOnFileContent() {
+        return true;
+    }
+
+    /**
+     * Returns "{language}/{category}" part of catalog file path, or null for files outside "messages" directory.
+     */
+    @Nullable
+    private static String getCatalogPath(@NotNull String path) {
+        final int messagesIndex = path.lastIndexOf(MESSAGES_DIRECTORY);
+        if (messagesIndex == -1 || !path.endsWith(".php")) {
+            return null;
+        }
+
+        final String catalogPath = path.substring(messagesIndex + MESSAGES_DIRECTORY.length(), path.length() - 4);
+        final int slashIndex = catalogPath.indexOf('/');
+        if (slashIndex < 1 || slashIndex == catalogPath.length() - 1) {
+            return null;
+        }
+
+        return catalogPath;
+    }
+
+    private static class MessageDataIndexer implements DataIndexer<String, List<MessageInfo>, FileContent> {
+        @Override
+        @NotNull
+        public Map<String, List<MessageInfo>> map(@NotNull final FileContent inputData) {
+            final String catalogPath = getCatalogPath(inputData.getFile().getPath());
+            final ArrayCreationExpression array = getMessagesArray(inputData.getPsiFile());
+            if (catalogPath == null || array == null) {
+                return Collections.emptyMap();
+            }
+
+            final int slashIndex = catalogPath.indexOf('/');
+            final String language = catalogPath.substring(0, slashIndex);
+            final String category = catalogPath.substring(slashIndex + 1);
+
+            final List<MessageInfo> messages = new ArrayList<>();
+            for (ArrayHashElement hashElement : array.getHashElements()) {
+                if (!(hashElement.getKey() instanceof StringLiteralExpression)) {
+                    continue;
+                }
+
+                MessageInfo messageInfo = new MessageInfo();
+                messageInfo.message = ((StringLiteralExpression) hashElement.getKey()).getContents();
+                messageInfo.language = language;
+                messageInfo.translation = hashElement.getValue() instanceof StringLiteralExpression
+                        ? ((StringLiteralExpression) hashElement.getValue()).getContents()
+                        : "";
+                messages.add(messageInfo);
+            }
+
+            return messages.isEmpty() ? Collections.emptyMap() : Collections.singletonMap(category, messages);
+        }
+
+        @Nullable
+        private static ArrayCreationExpression getMessagesArray(PsiFile file) {
+            if (!(file.getFirstChild() instanceof GroupStatement)) {
+                return null;
+            }
+
+            for (PsiElement element : file.getFirstChild().getChildren()) {
+                if (element instanceof PhpReturn) {
+                    PsiElement argument = ((PhpReturn) element).getFirstPsiChild();
+                    return argument instanceof ArrayCreationExpression ? (ArrayCreationExpression) argument : null;
+                }
+            }
+
+            return null;
+        }
+    }
+
+    private static class MessageDataExternalizer implements DataExternalizer<List<MessageInfo>> {
+        @Override
+        public void save(@NotNull DataOutput dataOutput, @NotNull List<MessageInfo> messages) throws IOException {
+            DataInputOutputUtil.writeINT(dataOutput, messages.size());
+            for (MessageInfo messageInfo : messages) {
+                IOUtil.writeUTF(dataOutput, messageInfo.message);
+                IOUtil.writeUTF(dataOutput, messageInfo.language);
+                IOUtil.writeUTF(dataOutput, messageInfo.translation);
+            }
+        }
+
+        @Override
+        @NotNull
+        public List<MessageInfo> read(@NotNull DataInput dataInput) throws IOException {
+            final int size = DataInputOutputUtil.readINT(dataInput);
+            final List<MessageInfo> messages = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                MessageInfo messageInfo = new MessageInfo();
+                messageInfo.message = IOUtil.readUTF(dataInput);
+                messageInfo.language = IOUtil.readUTF(dataInput);
+                messageInfo.translation = IOUtil.readUTF(dataInput);
+                messages.add(messageInfo);
+            }
+
+            return messages;
+        }
+    }
+}
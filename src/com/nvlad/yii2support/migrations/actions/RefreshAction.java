@@ -27,8 +27,10 @@ public class RefreshAction extends MigrateBaseAction {
         }
 
         MigrationService service = MigrationService.getInstance(project);
-        service.sync();
+        service.scheduleSync(() -> refresh(project, service));
+    }
 
+    private void refresh(Project project, MigrationService service) {
         Map<MigrateCommand, Set<Migration>> migrateCommandMap = new HashMap<>();
         MigrateCommand defaultCommand = null;
         for (MigrateCommand command : service.getMigrationCommandMap().keySet()) {
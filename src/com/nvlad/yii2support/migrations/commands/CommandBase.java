@@ -13,16 +13,15 @@ import com.intellij.openapi.util.SystemInfo;
 import com.intellij.openapi.util.text.StringUtil;
 import com.nvlad.yii2support.migrations.entities.MigrateCommand;
 import com.nvlad.yii2support.migrations.entities.Migration;
+import com.nvlad.yii2support.migrations.services.MigrationTreeRepaintService;
 import org.jetbrains.annotations.NotNull;
 
 import javax.swing.*;
 import javax.swing.tree.DefaultMutableTreeNode;
-import javax.swing.tree.DefaultTreeModel;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public abstract class CommandBase implements Runnable {
     final Project myProject;
@@ -30,7 +29,6 @@ public abstract class CommandBase implements Runnable {
     protected JComponent myComponent;
     private ConsoleView myConsoleView;
     private Application myApplication;
-    private ScheduledExecutorService myExecutorService;
 
     CommandBase(Project project, MigrateCommand command) {
         myProject = project;
@@ -47,15 +45,17 @@ public abstract class CommandBase implements Runnable {
 
     public void repaintComponent(JComponent component) {
         myComponent = component;
-        myExecutorService = Executors.newScheduledThreadPool(1);
     }
 
     abstract void processOutput(String text);
 
+    /**
+     * Batching and progress animation are done by {@link MigrationTreeRepaintService} for all running commands.
+     */
     void repaintMigrationNode(Migration migration) {
         DefaultMutableTreeNode treeNode = findTreeNode(migration);
         if (treeNode != null) {
-            myApplication.invokeLater(() -> ((DefaultTreeModel) ((JTree) myComponent).getModel()).nodeChanged(treeNode));
+            MigrationTreeRepaintService.getInstance(myProject).nodeChanged((JTree) myComponent, treeNode);
         }
     }
 
@@ -71,18 +71,11 @@ public abstract class CommandBase implements Runnable {
 
         if (myComponent != null) {
             myApplication.invokeLater(() -> myComponent.setEnabled(false));
-
-            myExecutorService.scheduleWithFixedDelay(this::updateComponent, 0, 125, TimeUnit.MILLISECONDS);
         }
 
         processHandler.waitFor();
 
         if (myComponent != null) {
-            myExecutorService.shutdown();
-            if (!myExecutorService.isShutdown()) {
-                myExecutorService.shutdownNow();
-            }
-
             myApplication.invokeLater(() -> {
                 myComponent.repaint();
 
@@ -109,17 +102,19 @@ public abstract class CommandBase implements Runnable {
         params.add("--interactive=0");
     }
 
-    private void updateComponent() {
-        myComponent.repaint();
-    }
-
     public void setApplication(Application application) {
         myApplication = application;
     }
 
+    /**
+     * Prints process output to console and passes it to {@link #processOutput(String)} line by line,
+     * buffering incomplete lines between chunks. Stdout and stderr are read by separate threads,
+     * each output type has its own buffer.
+     */
     class CommandProcessListener implements ProcessListener {
         private final AnsiEscapeDecoder decoder = new AnsiEscapeDecoder();
         private final CommandBase myProcessor;
+        private final Map<String, StringBuilder> myLineBuffers = new ConcurrentHashMap<>();
 
         CommandProcessListener(CommandBase processor) {
             myProcessor = processor;
@@ -132,7 +127,14 @@ public abstract class CommandBase implements Runnable {
 
         @Override
         public void processTerminated(@NotNull ProcessEvent processEvent) {
-
+            for (StringBuilder lineBuffer : myLineBuffers.values()) {
+                synchronized (lineBuffer) {
+                    if (lineBuffer.length() > 0) {
+                        myProcessor.processOutput(lineBuffer.toString());
+                        lineBuffer.setLength(0);
+                    }
+                }
+            }
         }
 
         @Override
@@ -156,7 +158,29 @@ public abstract class CommandBase implements Runnable {
                 }
             });
 
-            myProcessor.processOutput(builder.toString());
+            processLines(key.toString(), builder);
+        }
+
+        private void processLines(String outputType, CharSequence text) {
+            final StringBuilder lineBuffer = myLineBuffers.computeIfAbsent(outputType, key -> new StringBuilder());
+            // Remaining text is flushed from the thread which reports process termination
+            synchronized (lineBuffer) {
+                lineBuffer.append(text);
+
+                int lineStart = 0;
+                int lineEnd;
+                while ((lineEnd = lineBuffer.indexOf("\n", lineStart)) != -1) {
+                    int contentEnd = lineEnd;
+                    if (contentEnd > lineStart && lineBuffer.charAt(contentEnd - 1) == '\r') {
+                        contentEnd--;
+                    }
+
+                    myProcessor.processOutput(lineBuffer.substring(lineStart, contentEnd));
+                    lineStart = lineEnd + 1;
+                }
+
+                lineBuffer.delete(0, lineStart);
+            }
         }
     }
 }
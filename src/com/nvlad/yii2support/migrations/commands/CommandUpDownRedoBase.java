@@ -3,17 +3,19 @@ package com.nvlad.yii2support.migrations.commands;
 import com.intellij.database.dataSource.DataSourceUiUtil;
 import com.intellij.database.dataSource.LocalDataSource;
 import com.intellij.database.psi.DbDataSource;
-import com.intellij.database.psi.DbPsiFacade;
 import com.intellij.database.util.DbImplUtil;
 import com.intellij.execution.ExecutionException;
 import com.intellij.execution.process.ProcessHandler;
+import com.intellij.openapi.application.ReadAction;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.util.text.StringUtil;
 import com.nvlad.yii2support.common.YiiCommandLineUtil;
+import com.nvlad.yii2support.database.TableSchemaCache;
 import com.nvlad.yii2support.migrations.entities.DefaultMigrateCommand;
 import com.nvlad.yii2support.migrations.entities.MigrateCommand;
 import com.nvlad.yii2support.migrations.entities.Migration;
 import com.nvlad.yii2support.migrations.entities.MigrationStatus;
+import com.nvlad.yii2support.migrations.util.MigrationUtil;
 import org.jetbrains.annotations.NotNull;
 
 import javax.swing.*;
@@ -28,6 +30,7 @@ abstract class CommandUpDownRedoBase extends CommandBase {
 
     final String myPath;
     final List<Migration> myMigrations;
+    private final Map<String, Migration> myMigrationsByKey;
     String direction = null;
     private Map<String, DefaultMutableTreeNode> myMigrationNodeMap;
     private Map<Migration, MigrationStatus> myMigrationStatusMap;
@@ -37,6 +40,7 @@ abstract class CommandUpDownRedoBase extends CommandBase {
 
         myPath = path;
         myMigrations = migrations;
+        myMigrationsByKey = MigrationUtil.migrationMap(migrations);
     }
 
     @Override
@@ -163,8 +167,9 @@ abstract class CommandUpDownRedoBase extends CommandBase {
     }
 
     private void syncDataSources() {
-        DbPsiFacade facade = DbPsiFacade.getInstance(myProject);
-        for (DbDataSource dataSource : facade.getDataSources()) {
+        final String connection = StringUtil.isEmpty(myCommand.db) ? TableSchemaCache.DEFAULT_CONNECTION : myCommand.db;
+        final List<DbDataSource> dataSources = ReadAction.compute(() -> TableSchemaCache.getInstance(myProject).getDataSources(connection));
+        for (DbDataSource dataSource : dataSources) {
             if (dataSource.getDelegate() instanceof LocalDataSource) {
                 if (DbImplUtil.isConnected(dataSource)) {
                     LocalDataSource localDataSource = (LocalDataSource) dataSource.getDelegate();
@@ -175,13 +180,7 @@ abstract class CommandUpDownRedoBase extends CommandBase {
     }
 
     private Migration findMigration(String namespace, String name) {
-        for (Migration migration : myMigrations) {
-            if (StringUtil.equals(name, migration.name) && StringUtil.equals(namespace, migration.namespace)) {
-                return migration;
-            }
-        }
-
-        return null;
+        return myMigrationsByKey.get(MigrationUtil.migrationKey(namespace, name));
     }
 
     void prepareCommandParams(List<String> params, MigrateCommand command, String path) {
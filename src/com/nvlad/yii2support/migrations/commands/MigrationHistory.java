@@ -21,11 +21,11 @@ import java.util.regex.Pattern;
 public class MigrationHistory extends CommandBase {
     private static final Pattern historyEntryPattern = Pattern.compile("\\((\\d{4}-\\d{2}-\\d{2} \\d{2}:\\d{2}:\\d{2})\\) ([\\w\\\\-]*?\\\\)?([mM]\\d{6}_?\\d{6}\\D.+)");
     private Map<Migration, DefaultMutableTreeNode> treeNodeMap;
-    private final List<Migration> myMigrations;
+    private final Map<String, Migration> myMigrations;
 
     public MigrationHistory(Project project, MigrateCommand command, List<Migration> migrations) {
         super(project, command);
-        myMigrations = migrations;
+        myMigrations = MigrationUtil.migrationMap(migrations);
     }
 
     @Override
@@ -42,7 +42,7 @@ public class MigrationHistory extends CommandBase {
             }
 
             MigrationStatus status = exitCode == 0 ? MigrationStatus.NotApply : MigrationStatus.Unknown;
-            for (Migration migration : myMigrations) {
+            for (Migration migration : myMigrations.values()) {
                 migration.status = status;
                 migration.upDuration = null;
                 migration.downDuration = null;
@@ -70,27 +70,24 @@ public class MigrationHistory extends CommandBase {
         }
 
         if (text.contains("No migration has been done before.")) {
-            if (treeNodeMap == null) {
-                findTreeNode(myMigrations.get(0));
-
+            if (treeNodeMap == null && !myMigrations.isEmpty()) {
+                findTreeNode(myMigrations.values().iterator().next());
             }
         }
     }
 
     private void updateMigration(String namespace, String name, Date date) {
-        for (Migration migration : myMigrations) {
-            if (StringUtil.equals(name, migration.name) && StringUtil.equals(namespace, migration.namespace)) {
-                migration.status = MigrationStatus.Success;
-                migration.applyAt = date;
-                migration.upDuration = null;
-                migration.downDuration = null;
+        Migration migration = myMigrations.remove(MigrationUtil.migrationKey(namespace, name));
+        if (migration == null) {
+            return;
+        }
 
-                myMigrations.remove(migration);
+        migration.status = MigrationStatus.Success;
+        migration.applyAt = date;
+        migration.upDuration = null;
+        migration.downDuration = null;
 
-                repaintMigrationNode(migration);
-                return;
-            }
-        }
+        repaintMigrationNode(migration);
     }
 
     DefaultMutableTreeNode findTreeNode(Migration migration) {
@@ -6,6 +6,7 @@ import com.intellij.util.SmartList;
 import com.nvlad.yii2support.common.YiiAlias;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Collections;
 import java.util.List;
 
 public class MigrateCommand implements Comparable<MigrateCommand>, Cloneable {
@@ -17,7 +18,8 @@ public class MigrateCommand implements Comparable<MigrateCommand>, Cloneable {
     public List<String> migrationNamespaces;
     public boolean useTablePrefix;
 
-    private List<String> myPathCache;
+    // Filled on first use from sync thread and dispatch thread, published as a whole
+    private volatile List<String> myPathCache;
 
     public MigrateCommand() {
         isDefault = false;
@@ -94,19 +96,23 @@ public class MigrateCommand implements Comparable<MigrateCommand>, Cloneable {
     }
 
     private List<String> getPathCache(Project project) {
-        if (myPathCache == null) {
+        List<String> pathCache = myPathCache;
+        if (pathCache == null) {
             YiiAlias yiiAlias = YiiAlias.getInstance(project);
-            myPathCache = new SmartList<>();
+            List<String> paths = new SmartList<>();
             for (String path : migrationPath) {
                 String resolvedAlias = yiiAlias.resolveAlias(path, true);
                 if (resolvedAlias == null) {
                     continue;
                 }
 
-                myPathCache.add(yiiAlias.resolveAlias(resolvedAlias, true));
+                paths.add(yiiAlias.resolveAlias(resolvedAlias, true));
             }
+
+            pathCache = Collections.unmodifiableList(paths);
+            myPathCache = pathCache;
         }
 
-        return myPathCache;
+        return pathCache;
     }
 }
@@ -2,7 +2,6 @@ package com.nvlad.yii2support.migrations.entities;
 
 import com.jetbrains.php.lang.psi.elements.PhpClass;
 import org.jetbrains.annotations.NotNull;
-import org.jetbrains.annotations.Nullable;
 
 import java.security.InvalidParameterException;
 import java.text.ParseException;
@@ -36,6 +35,15 @@ public class Migration implements Comparable<Migration> {
         this.createdAt = dateFromName(this.name);
     }
 
+    public Migration(PhpClass clazz, String path, MigrationInfo info) {
+        this.migrationClass = clazz;
+        this.name = info.name;
+        this.path = path;
+        this.namespace = info.namespace;
+        this.status = MigrationStatus.Unknown;
+        this.createdAt = new Date(info.createdAt);
+    }
+
     @Override
     public String toString() {
         return name;
@@ -47,11 +55,18 @@ public class Migration implements Comparable<Migration> {
     }
 
     public static boolean isValidMigrationClass(PhpClass phpClass) {
-        return dateFromName.matcher(phpClass.getName()).find();
+        return isValidMigrationName(phpClass.getName());
+    }
+
+    public static boolean isValidMigrationName(String name) {
+        return dateFromName.matcher(name).find();
     }
 
-    @Nullable
-    private static Date dateFromName(String name) {
+    /**
+     * Parses creation date from migration name. Safe to call from indexing threads.
+     */
+    @NotNull
+    public static Date dateFromName(String name) {
         Matcher matcher = dateFromName.matcher(name);
         if (!matcher.find()) {
             throw new InvalidParameterException("Migration name <" + name + "> not contain or invalid creation date.");
@@ -59,10 +74,14 @@ public class Migration implements Comparable<Migration> {
 
         try {
             if (matcher.group(1).equals("M")) {
-                return migrationNamespaceDateFormat.parse(matcher.group(2));
+                synchronized (migrationNamespaceDateFormat) {
+                    return migrationNamespaceDateFormat.parse(matcher.group(2));
+                }
             }
 
-            return migrationPathDateFormat.parse(matcher.group(2));
+            synchronized (migrationPathDateFormat) {
+                return migrationPathDateFormat.parse(matcher.group(2));
+            }
         } catch (ParseException e) {
             throw new InvalidParameterException("Migration name <" + name + "> contain invalid creation date.");
         }
@@ -0,0 +1,33 @@
+package com.nvlad.yii2support.migrations.entities;
+
+import java.util.Objects;
+
+public class MigrationInfo {
+    public String name;
+    public String namespace;
+    public long createdAt;
+
+    public String getFQN() {
+        return namespace + name;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        MigrationInfo that = (MigrationInfo) o;
+        return createdAt == that.createdAt
+                && Objects.equals(name, that.name)
+                && Objects.equals(namespace, that.namespace);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, namespace, createdAt);
+    }
+}
@@ -0,0 +1,150 @@
+package com.nvlad.yii2support.migrations.index;
+
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.util.SmartList;
+import com.intellij.util.indexing.*;
+import com.intellij.util.io.DataExternalizer;
+import com.intellij.util.io.DataInputOutputUtil;
+import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.IOUtil;
+import com.intellij.util.io.KeyDescriptor;
+import com.jetbrains.php.lang.PhpFileType;
+import com.jetbrains.php.lang.psi.elements.PhpClass;
+import com.nvlad.yii2support.migrations.entities.Migration;
+import com.nvlad.yii2support.migrations.entities.MigrationInfo;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.security.InvalidParameterException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Migration classes keyed by directory path of migration file.
+ * Only files named as migrations are indexed, class inheritance is checked when migrations are loaded.
+ */
+public class MigrationFileIndex extends FileBasedIndexExtension<String, List<MigrationInfo>> {
+    public static final ID<String, List<MigrationInfo>> identity = ID.create("Yii2Support.MigrationFileIndex");
+    private final MigrationDataIndexer myMigrationDataIndexer;
+    private final MigrationDataExternalizer myMigrationDataExternalizer;
+    private final FileBasedIndex.InputFilter myInputFilter;
+
+    public MigrationFileIndex() {
+        myMigrationDataIndexer = new MigrationDataIndexer();
+        myMigrationDataExternalizer = new MigrationDataExternalizer();
+        myInputFilter = new DefaultFileTypeSpecificInputFilter(PhpFileType.INSTANCE) {
+            @Override
+            public boolean acceptInput(@NotNull VirtualFile file) {
+                return Migration.isValidMigrationName(file.getName());
+            }
+        };
+    }
+
+    @NotNull
+    @Override
+    public ID<String, List<MigrationInfo>> getName() {
+        return identity;
+    }
+
+    @NotNull
+    @Override
+    public DataIndexer<String, List<MigrationInfo>, FileContent> getIndexer() {
+        return myMigrationDataIndexer;
+    }
+
+    @NotNull
+    @Override
+    public KeyDescriptor<String> getKeyDescriptor() {
+        return EnumeratorStringDescriptor.INSTANCE;
+    }
+
+    @NotNull
+    @Override
+    public DataExternalizer<List<MigrationInfo>> getValueExternalizer() {
+        return myMigrationDataExternalizer;
+    }
+
+    @Override
+    public int getVersion() {
+        return 1;
+    }
+
+    @NotNull
+    @Override
+    public FileBasedIndex.InputFilter getInputFilter() {
+        return myInputFilter;
+    }
+
+    @Override
+    public boolean dependsOnFileContent() {
+        return true;
+    }
+
+    private static class MigrationDataIndexer implements DataIndexer<String, List<MigrationInfo>, FileContent> {
+        @Override
+        @NotNull
+        public Map<String, List<MigrationInfo>> map(@NotNull final FileContent inputData) {
+            final VirtualFile directory = inputData.getFile().getParent();
+            if (directory == null) {
+                return Collections.emptyMap();
+            }
+
+            final List<MigrationInfo> migrations = new SmartList<>();
+            for (PhpClass phpClass : PsiTreeUtil.findChildrenOfType(inputData.getPsiFile(), PhpClass.class)) {
+                if (phpClass.isAbstract() || phpClass.isInterface() || phpClass.isTrait() || phpClass.getSuperName() == null) {
+                    continue;
+                }
+
+                final MigrationInfo migrationInfo = new MigrationInfo();
+                migrationInfo.name = phpClass.getName();
+                migrationInfo.namespace = phpClass.getNamespaceName();
+                try {
+                    migrationInfo.createdAt = Migration.dateFromName(migrationInfo.name).getTime();
+                } catch (InvalidParameterException e) {
+                    continue;
+                }
+
+                migrations.add(migrationInfo);
+            }
+
+            if (migrations.isEmpty()) {
+                return Collections.emptyMap();
+            }
+
+            return Collections.singletonMap(directory.getPath(), migrations);
+        }
+    }
+
+    private static class MigrationDataExternalizer implements DataExternalizer<List<MigrationInfo>> {
+        @Override
+        public void save(@NotNull DataOutput dataOutput, @NotNull List<MigrationInfo> migrations) throws IOException {
+            DataInputOutputUtil.writeINT(dataOutput, migrations.size());
+            for (MigrationInfo migrationInfo : migrations) {
+                IOUtil.writeUTF(dataOutput, migrationInfo.name);
+                IOUtil.writeUTF(dataOutput, migrationInfo.namespace);
+                DataInputOutputUtil.writeLONG(dataOutput, migrationInfo.createdAt);
+            }
+        }
+
+        @Override
+        @NotNull
+        public List<MigrationInfo> read(@NotNull DataInput dataInput) throws IOException {
+            final int size = DataInputOutputUtil.readINT(dataInput);
+            final List<MigrationInfo> migrations = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                final MigrationInfo migrationInfo = new MigrationInfo();
+                migrationInfo.name = IOUtil.readUTF(dataInput);
+                migrationInfo.namespace = IOUtil.readUTF(dataInput);
+                migrationInfo.createdAt = DataInputOutputUtil.readLONG(dataInput);
+                migrations.add(migrationInfo);
+            }
+
+            return migrations;
+        }
+    }
+}
@@ -1,20 +1,35 @@
 package com.nvlad.yii2support.migrations.services;
 
+import com.intellij.openapi.application.Application;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.project.DumbService;
 import com.intellij.openapi.project.IndexNotReadyException;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.util.Alarm;
 import com.intellij.util.SmartList;
+import com.intellij.util.indexing.FileBasedIndex;
 import com.jetbrains.php.PhpIndex;
 import com.jetbrains.php.lang.psi.elements.PhpClass;
+import com.nvlad.yii2support.common.ClassUtils;
 import com.nvlad.yii2support.common.FileUtil;
+import com.nvlad.yii2support.common.YiiAlias;
 import com.nvlad.yii2support.common.YiiApplicationUtils;
 import com.nvlad.yii2support.migrations.entities.DefaultMigrateCommand;
 import com.nvlad.yii2support.migrations.entities.MigrateCommand;
 import com.nvlad.yii2support.migrations.entities.MigrateCommandComparator;
 import com.nvlad.yii2support.migrations.entities.Migration;
+import com.nvlad.yii2support.migrations.entities.MigrationInfo;
+import com.nvlad.yii2support.migrations.index.MigrationFileIndex;
 import com.nvlad.yii2support.utils.Yii2SupportSettings;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 public class MigrationService {
     private static final Map<Project, MigrationService> migrationManagerMap = new HashMap<>();
@@ -27,37 +42,57 @@ public class MigrationService {
         return migrationManagerMap.get(project);
     }
 
+    private static final int SYNC_DELAY = 300;
+
     private final Project myProject;
     private final PhpIndex myPhpIndex;
-    private final int baseUrlLength;
-    private Map<MigrateCommand, Collection<Migration>> myMigrationMap;
-    private List<Migration> myMigrations;
+    private final Alarm mySyncAlarm;
+    private volatile Map<MigrateCommand, Collection<Migration>> myMigrationMap;
+    private volatile List<Migration> myMigrations = Collections.emptyList();
+    private Map<String, Migration> myMigrationsByClass = new HashMap<>();
+    private Map<String, MigrateCommand> myCommandsByClass = new HashMap<>();
+    private List<MigrateCommand> myCommands = Collections.emptyList();
+    private String myYiiRootPath;
+    private volatile Set<String> myMigrationDirectories = Collections.emptySet();
+    private volatile boolean myFullSyncRequired = true;
+    private final Set<String> myChangedDirectories = ConcurrentHashMap.newKeySet();
     private Set<MigrationServiceListener> listeners;
+    private final Queue<Runnable> myAfterSyncCallbacks = new ConcurrentLinkedQueue<>();
 
     private MigrationService(Project project) {
         myProject = project;
         myPhpIndex = PhpIndex.getInstance(project);
+        mySyncAlarm = new Alarm(Alarm.ThreadToUse.POOLED_THREAD, project);
         listeners = new HashSet<>();
-
-        String projectRootUrl = YiiApplicationUtils.getYiiRootUrl(project);
-        baseUrlLength = projectRootUrl != null ? projectRootUrl.length() : 0;
     }
 
 
+    /**
+     * Returns empty map before first sync, listeners are notified when migrations are read.
+     */
     public Map<MigrateCommand, Collection<Migration>> getMigrationCommandMap() {
         if (myMigrationMap == null) {
             myMigrationMap = new HashMap<>();
-            sync();
+            scheduleSync();
         }
 
         return myMigrationMap;
     }
 
-    public void sync() {
-        Collection<PhpClass> migrations;
-        try {
-            migrations = myPhpIndex.getAllSubclasses("\\yii\\db\\MigrationInterface");
-        } catch (IndexNotReadyException e) {
+    /**
+     * Reads migrations from MigrationFileIndex. Migrations which are not changed since previous sync are reused,
+     * so PSI is touched only for added or moved migration classes. After the first sync only directories passed to
+     * {@link #scheduleDirectorySync(Collection)} are read again, reused migrations keep their command while commands
+     * are not changed.
+     */
+    public synchronized void sync() {
+        final String yiiRootPath = YiiApplicationUtils.getYiiRootPath(myProject);
+        if (yiiRootPath == null) {
+            return;
+        }
+
+        if (DumbService.isDumb(myProject)) {
+            DumbService.getInstance(myProject).runWhenSmart(this::scheduleSync);
             return;
         }
 
@@ -65,43 +100,137 @@ public class MigrationService {
         commands.add(new DefaultMigrateCommand(commands));
         commands.sort(new MigrateCommandComparator());
 
+        final Set<String> changedDirectories = new HashSet<>();
+        myChangedDirectories.removeIf(changedDirectories::add);
+        final boolean fullSync = myFullSyncRequired || !yiiRootPath.equals(myYiiRootPath);
+        final boolean commandsChanged = !commands.equals(myCommands);
+        myFullSyncRequired = false;
+
         Map<MigrateCommand, Collection<Migration>> migrationMap = new HashMap<>();
         List<Migration> migrationList = new SmartList<>();
         for (MigrateCommand command : commands) {
             migrationMap.put(command, new SmartList<>());
         }
 
-        for (PhpClass migrationClass : migrations) {
-            if (migrationClass.isAbstract() || !Migration.isValidMigrationClass(migrationClass)) {
-                continue;
-            }
-
-            VirtualFile virtualFile = FileUtil.getVirtualFile(migrationClass.getContainingFile());
-            if (virtualFile.getUrl().length() < baseUrlLength) {
-                continue;
-            }
+        Map<String, Migration> migrationsByClass = new HashMap<>();
+        Map<String, MigrateCommand> commandsByClass = new HashMap<>();
+        final Set<String> migrationDirectories;
+        try {
+            // Migration paths of commands are resolved through aliases, which read PSI of config files
+            migrationDirectories = ReadAction.compute(() -> {
+                if (fullSync) {
+                    collectMigrations(yiiRootPath, null, migrationsByClass);
+                } else {
+                    myMigrationsByClass.forEach((fqn, migration) -> {
+                        if (!changedDirectories.contains(yiiRootPath + "/" + migration.path)) {
+                            migrationsByClass.put(fqn, migration);
+                        }
+                    });
+                    collectMigrations(yiiRootPath, changedDirectories, migrationsByClass);
+                }
 
-            String path = virtualFile.getUrl().substring(baseUrlLength + 1);
-            int pathLength = path.length();
-            path = path.substring(0, pathLength - virtualFile.getName().length() - 1);
-            Migration migration = getMigrationForClass(migrationClass, path);
-            for (MigrateCommand command : commands) {
-                if (command.containsMigration(myProject, migration)) {
-                    migrationMap.get(command).add(migration);
-                    migrationList.add(migration);
-                    break;
+                for (Map.Entry<String, Migration> entry : migrationsByClass.entrySet()) {
+                    final Migration migration = entry.getValue();
+                    final MigrateCommand command = !commandsChanged && myMigrationsByClass.get(entry.getKey()) == migration
+                            ? myCommandsByClass.get(entry.getKey())
+                            : findCommand(commands, migration);
+                    commandsByClass.put(entry.getKey(), command);
+                    if (command != null) {
+                        migrationMap.get(command).add(migration);
+                        migrationList.add(migration);
+                    }
                 }
-            }
+
+                return collectMigrationDirectories(yiiRootPath, commands, migrationList);
+            });
+        } catch (IndexNotReadyException e) {
+            myFullSyncRequired = true;
+            return;
         }
 
+        myMigrationsByClass = migrationsByClass;
+        myCommandsByClass = commandsByClass;
+        myCommands = commands;
+        myYiiRootPath = yiiRootPath;
+        myMigrationDirectories = migrationDirectories;
         if (!migrationMap.equals(myMigrationMap)) {
             myMigrationMap = migrationMap;
             myMigrations = migrationList;
 
-            for (MigrationServiceListener listener : listeners) {
-                listener.treeChanged();
+            fireTreeChanged();
+        }
+    }
+
+    /**
+     * Coalesces sync requests, sync runs on background thread after requests stop coming.
+     */
+    public void scheduleSync() {
+        scheduleSync(null);
+    }
+
+    /**
+     * Same as {@link #scheduleSync()}, afterSync runs on dispatch thread once migrations are synced.
+     * Use it instead of {@link #sync()} on dispatch thread.
+     */
+    public void scheduleSync(@Nullable Runnable afterSync) {
+        if (afterSync != null) {
+            myAfterSyncCallbacks.add(afterSync);
+        }
+
+        myFullSyncRequired = true;
+        mySyncAlarm.cancelAllRequests();
+        mySyncAlarm.addRequest(this::runScheduledSync, SYNC_DELAY);
+    }
+
+    /**
+     * Same as {@link #scheduleSync()}, but only given directories of migration files are read again.
+     */
+    public void scheduleDirectorySync(@NotNull Collection<String> changedDirectories) {
+        myChangedDirectories.addAll(changedDirectories);
+        mySyncAlarm.cancelAllRequests();
+        mySyncAlarm.addRequest(this::runScheduledSync, SYNC_DELAY);
+    }
+
+    private void runScheduledSync() {
+        // In dumb mode sync reschedules itself and callbacks wait for that run
+        final boolean dumb = DumbService.isDumb(myProject);
+        sync();
+        if (dumb) {
+            return;
+        }
+
+        final List<Runnable> callbacks = new ArrayList<>();
+        Runnable callback;
+        while ((callback = myAfterSyncCallbacks.poll()) != null) {
+            callbacks.add(callback);
+        }
+
+        if (!callbacks.isEmpty()) {
+            ApplicationManager.getApplication().invokeLater(() -> callbacks.forEach(Runnable::run), myProject.getDisposed());
+        }
+    }
+
+    /**
+     * Returns true for migration files and for known migration directories with their parents.
+     */
+    public boolean isMigrationPath(@NotNull String path) {
+        if (isMigrationFilePath(path)) {
+            return true;
+        }
+
+        final String directoryPrefix = path + "/";
+        for (String directory : myMigrationDirectories) {
+            if (directory.equals(path) || directory.startsWith(directoryPrefix)) {
+                return true;
             }
         }
+
+        return false;
+    }
+
+    public static boolean isMigrationFilePath(@NotNull String path) {
+        final String name = path.substring(path.lastIndexOf('/') + 1);
+        return name.endsWith(".php") && Migration.isValidMigrationName(name);
     }
 
     public List<Migration> getMigrations() {
@@ -116,15 +245,98 @@ public class MigrationService {
         listeners.remove(listener);
     }
 
-    private Migration getMigrationForClass(PhpClass phpClass, String path) {
-        if (myMigrations != null) {
-            for (Migration migration : myMigrations) {
-                if (migration.migrationClass.equals(phpClass)) {
-                    return migration;
+    private void fireTreeChanged() {
+        final Application application = ApplicationManager.getApplication();
+        if (!application.isDispatchThread()) {
+            application.invokeLater(this::fireTreeChanged, myProject.getDisposed());
+            return;
+        }
+
+        for (MigrationServiceListener listener : listeners) {
+            listener.treeChanged();
+        }
+    }
+
+    @NotNull
+    private Set<String> collectMigrationDirectories(String yiiRootPath, List<MigrateCommand> commands, List<Migration> migrations) {
+        final Set<String> result = new HashSet<>();
+        for (Migration migration : migrations) {
+            result.add(yiiRootPath + "/" + migration.path);
+        }
+
+        final YiiAlias yiiAlias = YiiAlias.getInstance(myProject);
+        for (MigrateCommand command : commands) {
+            for (String migrationPath : command.migrationPath) {
+                final String path = yiiAlias.resolveAlias(migrationPath, true);
+                if (path != null) {
+                    result.add(yiiRootPath + "/" + path);
                 }
             }
         }
 
-        return new Migration(phpClass, path);
+        return result;
+    }
+
+    @Nullable
+    private MigrateCommand findCommand(List<MigrateCommand> commands, Migration migration) {
+        for (MigrateCommand command : commands) {
+            if (command.containsMigration(myProject, migration)) {
+                return command;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Reads migrations of given directories, or of all indexed directories when directories is null.
+     */
+    private void collectMigrations(String yiiRootPath, @Nullable Collection<String> directories, Map<String, Migration> migrationsByClass) {
+        final FileBasedIndex fileBasedIndex = FileBasedIndex.getInstance();
+        final GlobalSearchScope scope = GlobalSearchScope.allScope(myProject);
+        if (directories == null) {
+            final List<String> allDirectories = new ArrayList<>();
+            fileBasedIndex.processAllKeys(MigrationFileIndex.identity, allDirectories::add, scope, null);
+            directories = allDirectories;
+        }
+
+        final String yiiRootPrefix = yiiRootPath + "/";
+        for (String directory : directories) {
+            if (!directory.startsWith(yiiRootPrefix)) {
+                continue;
+            }
+
+            final String path = directory.substring(yiiRootPrefix.length());
+            for (List<MigrationInfo> migrationInfos : fileBasedIndex.getValues(MigrationFileIndex.identity, directory, scope)) {
+                for (MigrationInfo migrationInfo : migrationInfos) {
+                    final Migration migration = getMigration(migrationInfo, directory, path);
+                    if (migration != null) {
+                        migrationsByClass.put(migrationInfo.getFQN(), migration);
+                    }
+                }
+            }
+        }
+    }
+
+    @Nullable
+    private Migration getMigration(MigrationInfo migrationInfo, String directoryPath, String path) {
+        final Migration migration = myMigrationsByClass.get(migrationInfo.getFQN());
+        if (migration != null && migration.path.equals(path) && migration.migrationClass.isValid()) {
+            return migration;
+        }
+
+        for (PhpClass phpClass : myPhpIndex.getClassesByFQN(migrationInfo.getFQN())) {
+            if (phpClass.isAbstract() || !ClassUtils.isClassImplements(phpClass, "\\yii\\db\\MigrationInterface", 100)) {
+                continue;
+            }
+
+            final VirtualFile virtualFile = FileUtil.getVirtualFile(phpClass.getContainingFile());
+            final VirtualFile directory = virtualFile.getParent();
+            if (directory != null && directory.getPath().equals(directoryPath)) {
+                return new Migration(phpClass, path, migrationInfo);
+            }
+        }
+
+        return null;
     }
 }
@@ -0,0 +1,146 @@
+package com.nvlad.yii2support.migrations.services;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.project.Project;
+import com.nvlad.yii2support.migrations.entities.Migration;
+import com.nvlad.yii2support.migrations.entities.MigrationStatus;
+import org.jetbrains.annotations.NotNull;
+
+import javax.swing.*;
+import javax.swing.tree.DefaultMutableTreeNode;
+import javax.swing.tree.DefaultTreeModel;
+import javax.swing.tree.TreeNode;
+import javax.swing.tree.TreePath;
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Coalesces migration tree updates of running commands.
+ * Changed nodes are reported to tree model in one batch per EDT event, and only rows of migrations
+ * in progress are repainted by a shared timer to animate the progress icon.
+ */
+public class MigrationTreeRepaintService implements Disposable {
+    private static final int PROGRESS_FRAME_DELAY = 125;
+
+    public static MigrationTreeRepaintService getInstance(@NotNull Project project) {
+        return ServiceManager.getService(project, MigrationTreeRepaintService.class);
+    }
+
+    private final Project myProject;
+    private final Map<JTree, Set<TreeNode>> myChangedNodes = new LinkedHashMap<>();
+    private final Map<JTree, Set<TreeNode>> myProgressNodes = new LinkedHashMap<>();
+    private final Timer myProgressTimer;
+    private boolean myFlushScheduled;
+
+    public MigrationTreeRepaintService(Project project) {
+        myProject = project;
+        myProgressTimer = new Timer(PROGRESS_FRAME_DELAY, e -> repaintProgressNodes());
+    }
+
+    /**
+     * Marks tree node as changed, may be called from any thread.
+     */
+    public void nodeChanged(@NotNull JTree tree, @NotNull TreeNode node) {
+        synchronized (myChangedNodes) {
+            myChangedNodes.computeIfAbsent(tree, key -> new LinkedHashSet<>()).add(node);
+            if (myFlushScheduled) {
+                return;
+            }
+
+            myFlushScheduled = true;
+        }
+
+        ApplicationManager.getApplication().invokeLater(this::flush, myProject.getDisposed());
+    }
+
+    @Override
+    public void dispose() {
+        myProgressTimer.stop();
+        myProgressNodes.clear();
+    }
+
+    private void flush() {
+        final Map<JTree, Set<TreeNode>> changedNodes;
+        synchronized (myChangedNodes) {
+            changedNodes = new LinkedHashMap<>(myChangedNodes);
+            myChangedNodes.clear();
+            myFlushScheduled = false;
+        }
+
+        for (Map.Entry<JTree, Set<TreeNode>> entry : changedNodes.entrySet()) {
+            fireNodesChanged(entry.getKey(), entry.getValue());
+            updateProgressNodes(entry.getKey(), entry.getValue());
+        }
+
+        if (myProgressNodes.isEmpty()) {
+            myProgressTimer.stop();
+        } else if (!myProgressTimer.isRunning()) {
+            myProgressTimer.start();
+        }
+    }
+
+    private static void fireNodesChanged(JTree tree, Set<TreeNode> nodes) {
+        final Map<TreeNode, List<Integer>> changedIndices = new LinkedHashMap<>();
+        for (TreeNode node : nodes) {
+            final TreeNode parent = node.getParent();
+            final int index = parent != null ? parent.getIndex(node) : -1;
+            if (index != -1) {
+                changedIndices.computeIfAbsent(parent, key -> new ArrayList<>()).add(index);
+            }
+        }
+
+        final DefaultTreeModel treeModel = (DefaultTreeModel) tree.getModel();
+        for (Map.Entry<TreeNode, List<Integer>> entry : changedIndices.entrySet()) {
+            treeModel.nodesChanged(entry.getKey(), entry.getValue().stream().mapToInt(Integer::intValue).toArray());
+            // Parent nodes show applied migrations count
+            treeModel.nodeChanged(entry.getKey());
+        }
+    }
+
+    private void updateProgressNodes(JTree tree, Set<TreeNode> nodes) {
+        final Set<TreeNode> progressNodes = myProgressNodes.computeIfAbsent(tree, key -> new HashSet<>());
+        for (TreeNode node : nodes) {
+            if (isInProgress(node)) {
+                progressNodes.add(node);
+            } else {
+                progressNodes.remove(node);
+            }
+        }
+
+        if (progressNodes.isEmpty()) {
+            myProgressNodes.remove(tree);
+        }
+    }
+
+    private void repaintProgressNodes() {
+        for (Map.Entry<JTree, Set<TreeNode>> entry : myProgressNodes.entrySet()) {
+            final JTree tree = entry.getKey();
+            entry.getValue().removeIf(node -> !isInProgress(node));
+            for (TreeNode node : entry.getValue()) {
+                final Rectangle bounds = tree.getPathBounds(new TreePath(((DefaultMutableTreeNode) node).getPath()));
+                if (bounds != null) {
+                    tree.repaint(bounds);
+                }
+            }
+        }
+
+        myProgressNodes.values().removeIf(Set::isEmpty);
+        if (myProgressNodes.isEmpty()) {
+            myProgressTimer.stop();
+        }
+    }
+
+    private static boolean isInProgress(TreeNode node) {
+        return node instanceof DefaultMutableTreeNode
+                && ((DefaultMutableTreeNode) node).getUserObject() instanceof Migration
+                && ((Migration) ((DefaultMutableTreeNode) node).getUserObject()).status == MigrationStatus.Progress;
+    }
+}
@@ -1,99 +1,70 @@
 package com.nvlad.yii2support.migrations.services;
 
 import com.intellij.openapi.project.Project;
-import com.intellij.openapi.vfs.*;
-import com.intellij.psi.PsiFile;
-import com.intellij.psi.PsiManager;
-import com.jetbrains.php.PhpIndex;
-import com.jetbrains.php.codeInsight.controlFlow.instructions.PhpClassDeclarationInstruction;
-import com.jetbrains.php.codeInsight.controlFlow.instructions.PhpInstruction;
-import com.jetbrains.php.lang.psi.PhpFile;
-import com.jetbrains.php.lang.psi.elements.PhpClass;
-import com.nvlad.yii2support.common.ClassUtils;
+import com.intellij.openapi.vfs.newvfs.BulkFileListener;
+import com.intellij.openapi.vfs.newvfs.events.VFileEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileMoveEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFilePropertyChangeEvent;
 import org.jetbrains.annotations.NotNull;
-
-public class MigrationsVirtualFileMonitor implements VirtualFileListener {
-    private final Project myProject;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Schedules migrations sync for batches of VFS events which touch migration files or migration directories.
+ * Files are filtered by path only, PSI is not loaded. Events of migration files re-read only their directories,
+ * events of directories re-read all migrations.
+ */
+public class MigrationsVirtualFileMonitor implements BulkFileListener {
     private final MigrationService service;
 
     public MigrationsVirtualFileMonitor(Project project) {
-        myProject = project;
         service = MigrationService.getInstance(project);
     }
 
     @Override
-    public void propertyChanged(@NotNull VirtualFilePropertyEvent virtualFilePropertyEvent) {
-
-    }
+    public void after(@NotNull List<? extends VFileEvent> events) {
+        final Set<String> directories = new HashSet<>();
+        for (VFileEvent event : events) {
+            final String oldPath = getOldPath(event);
+            if (!service.isMigrationPath(event.getPath()) && (oldPath == null || !service.isMigrationPath(oldPath))) {
+                continue;
+            }
 
-    @Override
-    public void contentsChanged(@NotNull VirtualFileEvent virtualFileEvent) {
-//        MigrationService service = MigrationService.getInstance(myProject);
-//        service.findMigrationByFile(virtualFileEvent.getFile());
-    }
+            if (!MigrationService.isMigrationFilePath(event.getPath())) {
+                service.scheduleSync();
+                return;
+            }
 
-    @Override
-    public void fileCreated(@NotNull VirtualFileEvent event) {
-        if (isMigrationFile(event.getFile())) {
-            service.sync();
+            directories.add(getParentPath(event.getPath()));
+            if (oldPath != null) {
+                directories.add(getParentPath(oldPath));
+            }
         }
-    }
-
-    @Override
-    public void fileDeleted(@NotNull VirtualFileEvent event) {
-        service.sync();
-    }
-
-    @Override
-    public void fileMoved(@NotNull VirtualFileMoveEvent virtualFileMoveEvent) {
-
-    }
-
-    @Override
-    public void fileCopied(@NotNull VirtualFileCopyEvent virtualFileCopyEvent) {
-
-    }
-
-    @Override
-    public void beforePropertyChange(@NotNull VirtualFilePropertyEvent virtualFilePropertyEvent) {
-
-    }
-
-    @Override
-    public void beforeContentsChange(@NotNull VirtualFileEvent virtualFileEvent) {
-
-    }
-
-    @Override
-    public void beforeFileDeletion(@NotNull VirtualFileEvent virtualFileEvent) {
-
-    }
-
-    @Override
-    public void beforeFileMovement(@NotNull VirtualFileMoveEvent virtualFileMoveEvent) {
 
+        if (!directories.isEmpty()) {
+            service.scheduleDirectorySync(directories);
+        }
     }
 
-    private boolean isMigrationFile(VirtualFile virtualFile) {
-        PsiFile psiFile = PsiManager.getInstance(myProject).findFile(virtualFile);
-        if (!(psiFile instanceof PhpFile)) {
-            return false;
+    @Nullable
+    private static String getOldPath(VFileEvent event) {
+        if (event instanceof VFileMoveEvent) {
+            return ((VFileMoveEvent) event).getOldPath();
         }
 
-        for (PhpInstruction instruction : ((PhpFile) psiFile).getControlFlow().getInstructions()) {
-            if (instruction instanceof PhpClassDeclarationInstruction) {
-                PhpClass phpClass = ((PhpClassDeclarationInstruction) instruction).getClassDeclaration();
-                if (phpClass.isAbstract()) {
-                    continue;
-                }
-
-                PhpIndex phpIndex = PhpIndex.getInstance(myProject);
-                if (ClassUtils.isClassInheritsOrEqual(phpClass, "\\yii\\db\\Migration", phpIndex)) {
-                    return true;
-                }
-            }
+        if (event instanceof VFilePropertyChangeEvent && ((VFilePropertyChangeEvent) event).isRename()) {
+            return ((VFilePropertyChangeEvent) event).getOldPath();
         }
 
-        return false;
+        return null;
+    }
+
+    @NotNull
+    private static String getParentPath(String path) {
+        final int slashIndex = path.lastIndexOf('/');
+        return slashIndex == -1 ? path : path.substring(0, slashIndex);
     }
 }
@@ -150,8 +150,9 @@ public class MigrationCommandDialog extends DialogWrapper {
         myDbField = new JBTextField("db");
         myPanel.add(myDbField);
 
+        // Suggestions come from the last sync, fresh migrations are read in background
         MigrationService service = MigrationService.getInstance(myProject);
-        service.sync();
+        service.scheduleSync();
 
         List<String> migrationPaths = MigrationUtil.migrationPaths(service.getMigrations());
         Collections.sort(migrationPaths);
@@ -69,11 +69,12 @@ public class MigrationPanel extends SimpleToolWindowPanel {
 //            boolean newestFirst = Yii2SupportSettings.getInstance(myProject).newestFirst;
             MigrationService service = MigrationService.getInstance(myProject);
 
-            service.sync();
-            updateTree();
+            service.scheduleSync(() -> {
+                updateTree();
 
-            DefaultTreeModel treeModel = ((DefaultTreeModel) myTree.getModel());
-            treeModel.nodeStructureChanged((TreeNode) treeModel.getRoot());
+                DefaultTreeModel treeModel = ((DefaultTreeModel) myTree.getModel());
+                treeModel.nodeStructureChanged((TreeNode) treeModel.getRoot());
+            });
         });
     }
 
@@ -1,8 +1,7 @@
 package com.nvlad.yii2support.migrations.ui.toolWindow;
 
-import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.project.Project;
-import com.intellij.openapi.vfs.VirtualFileSystem;
+import com.intellij.openapi.vfs.VirtualFileManager;
 import com.intellij.openapi.wm.ToolWindow;
 import com.intellij.openapi.wm.ToolWindowFactory;
 import com.intellij.openapi.wm.ToolWindowManager;
@@ -10,6 +9,7 @@ import com.intellij.openapi.wm.ex.ToolWindowManagerEx;
 import com.intellij.openapi.wm.ex.ToolWindowManagerListener;
 import com.intellij.ui.content.Content;
 import com.intellij.ui.content.ContentFactory;
+import com.intellij.util.messages.MessageBusConnection;
 import com.nvlad.yii2support.migrations.services.MigrationService;
 import com.nvlad.yii2support.migrations.services.MigrationServiceListener;
 import com.nvlad.yii2support.migrations.services.MigrationsVirtualFileMonitor;
@@ -40,7 +40,7 @@ public class MigrationsToolWindowFactory implements ToolWindowFactory {
     class MigrationToolWindowManagerListener implements ToolWindowManagerListener {
         private final Project myProject;
         private final MigrationsVirtualFileMonitor fileMonitor;
-        private final VirtualFileSystem fileSystem;
+        private MessageBusConnection fileMonitorConnection;
         private final MigrationService service;
         private final MigrationServiceListener serviceListener;
         private boolean myToolWindowVisible = true;
@@ -48,7 +48,6 @@ public class MigrationsToolWindowFactory implements ToolWindowFactory {
         MigrationToolWindowManagerListener(Project project, JTree tree) {
             myProject = project;
             fileMonitor = new MigrationsVirtualFileMonitor(project);
-            fileSystem = myProject.getBaseDir().getFileSystem();
             service = MigrationService.getInstance(project);
             serviceListener = new ServiceListener(tree, project);
         }
@@ -69,13 +68,17 @@ public class MigrationsToolWindowFactory implements ToolWindowFactory {
             boolean toolWindowVisible = window.isVisible();
             if (myToolWindowVisible != toolWindowVisible) {
                 if (myToolWindowVisible) {
-                    fileSystem.removeVirtualFileListener(fileMonitor);
+                    if (fileMonitorConnection != null) {
+                        fileMonitorConnection.disconnect();
+                        fileMonitorConnection = null;
+                    }
                     service.removeListener(serviceListener);
                 } else {
                     service.addListener(serviceListener);
-                    fileSystem.addVirtualFileListener(fileMonitor);
+                    fileMonitorConnection = myProject.getMessageBus().connect();
+                    fileMonitorConnection.subscribe(VirtualFileManager.VFS_CHANGES, fileMonitor);
 
-                    ApplicationManager.getApplication().invokeLater(service::sync);
+                    service.scheduleSync();
                 }
 
                 myToolWindowVisible = toolWindowVisible;
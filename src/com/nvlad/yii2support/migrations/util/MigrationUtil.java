@@ -5,9 +5,12 @@ import org.jetbrains.annotations.Nullable;
 
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.util.Collection;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 
 public class MigrationUtil {
     private static final SimpleDateFormat migrationApplyDateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
@@ -21,6 +24,22 @@ public class MigrationUtil {
         }
     }
 
+    /**
+     * Key of migration in maps built by {@link #migrationMap(Collection)}.
+     */
+    public static String migrationKey(String namespace, String name) {
+        return namespace + name;
+    }
+
+    public static Map<String, Migration> migrationMap(Collection<Migration> migrations) {
+        Map<String, Migration> result = new LinkedHashMap<>();
+        for (Migration migration : migrations) {
+            result.put(migrationKey(migration.namespace, migration.name), migration);
+        }
+
+        return result;
+    }
+
     public static List<String> migrationPaths(List<Migration> migrations) {
         List<String> paths = new LinkedList<>();
         for (Migration migration : migrations) {
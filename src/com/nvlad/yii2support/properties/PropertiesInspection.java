@@ -13,6 +13,7 @@ import com.jetbrains.php.lang.psi.visitors.PhpElementVisitor;
 import com.nvlad.yii2support.common.ClassUtils;
 import com.nvlad.yii2support.common.DatabaseUtils;
 import com.nvlad.yii2support.common.VirtualProperty;
+import com.nvlad.yii2support.database.TableSchemaCache;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.ArrayList;
@@ -41,7 +42,8 @@ public class PropertiesInspection extends PhpInspection {
                     if (phpClass != null && ClassUtils.isClassInheritsOrEqual(phpClass, ClassUtils.getClass(index, "\\yii\\db\\BaseActiveRecord"), 100)) {
                         Collection<Field> fields = phpClass.getFields();
                         String table = DatabaseUtils.getTableByActiveRecordClass(phpClass);
-                        ArrayList<VirtualProperty> notDeclaredColumns = DatabaseUtils.getNotDeclaredColumns(table, fields, element.getProject());
+                        TableSchemaCache schema = DatabaseUtils.getSchemaByActiveRecordClass(phpClass);
+                        ArrayList<VirtualProperty> notDeclaredColumns = DatabaseUtils.getNotDeclaredColumns(table, fields, schema);
                         if (notDeclaredColumns.size() > 0) {
                             MissingPropertiesQuickFix qFix = new MissingPropertiesQuickFix(notDeclaredColumns, docComment);
                             String str1 = notDeclaredColumns.size() > 1 ? "properties" : "property";
@@ -49,7 +51,7 @@ public class PropertiesInspection extends PhpInspection {
                                     " is missing " + notDeclaredColumns.size() + " " + str1 + " that corresponds to database columns", ProblemHighlightType.WEAK_WARNING, qFix);
                         }
 
-                        ArrayList<PhpDocPropertyTag> unusedProperties = DatabaseUtils.getUnusedProperties(table, docComment.getPropertyTags(), phpClass);
+                        ArrayList<PhpDocPropertyTag> unusedProperties = DatabaseUtils.getUnusedProperties(table, docComment.getPropertyTags(), phpClass, schema);
                         if (unusedProperties.size() > 0) {
                             for (PhpDocPropertyTag tag: unusedProperties) {
                                 problemsHolder.registerProblem(tag, "Property is unused in class " + phpClass.getFQN(), ProblemHighlightType.LIKE_UNUSED_SYMBOL);
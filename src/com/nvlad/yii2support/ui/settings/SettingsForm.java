@@ -59,6 +59,7 @@ public class SettingsForm implements Configurable {
     public void apply() {
         settings.yiiRootPath = StringUtil.nullize(yiiRootPath.getText().trim());
 
+        settings.incModificationCount();
         YiiApplicationUtils.resetYiiRootPath(myProject);
         FileBasedIndex.getInstance().requestRebuild(ViewFileIndex.identity);
     }
@@ -14,11 +14,11 @@ import com.nvlad.yii2support.common.ClassUtils;
 import com.nvlad.yii2support.common.MethodUtils;
 import com.nvlad.yii2support.common.PsiUtil;
 import com.nvlad.yii2support.common.UrlUtils;
+import com.nvlad.yii2support.url.entities.Route;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.Map;
 
 /**
@@ -88,13 +88,13 @@ public class UrlCompletionContributor extends com.intellij.codeInsight.completio
                                     PsiElement psiElement = firstElement.getChildren()[0];
                                     if (psiElement instanceof StringLiteralExpression) {
                                         String url = ((StringLiteralExpression) psiElement).getContents();
-                                        Parameter[] params = UrlUtils.getParamsByUrl(url, psiElement.getProject());
+                                        Map<String, String> params = UrlUtils.getParamsByUrl(url, psiElement.getProject());
                                         if (params != null) {
-                                            for (Parameter param : params) {
-                                                if (!usedParams.containsKey(param.getName())) {
-                                                    LookupElementBuilder builder = LookupElementBuilder.create(param, param.getName());
-                                                    if (param.getType().isComplete())
-                                                        builder = builder.withTypeText(param.getType().toString(), true);
+                                            for (Map.Entry<String, String> param : params.entrySet()) {
+                                                if (!usedParams.containsKey(param.getKey())) {
+                                                    LookupElementBuilder builder = LookupElementBuilder.create(param.getKey());
+                                                    if (!param.getValue().isEmpty())
+                                                        builder = builder.withTypeText(param.getValue(), true);
 
                                                     completionResultSet.addElement(builder);
                                                 }
@@ -112,16 +112,11 @@ public class UrlCompletionContributor extends com.intellij.codeInsight.completio
     }
 
     private void buildUrlCompletionList(@NotNull CompletionResultSet completionResultSet, PsiElement position) {
-        HashMap<String, Method> routes = UrlUtils.getRoutes(position.getProject());
-        Iterator it = routes.entrySet().iterator();
-        while (it.hasNext()) {
-            Map.Entry pair = (Map.Entry) it.next();
-            Method method = (Method) pair.getValue();
-
-            LookupElementBuilder builder = LookupElementBuilder.create(pair.getValue(), pair.getKey().toString());
-            builder = builder.withTypeText(method.getContainingClass().getFQN(), true);
+        Map<String, Route> routes = UrlUtils.getRoutes(position.getProject());
+        for (Map.Entry<String, Route> entry : routes.entrySet()) {
+            LookupElementBuilder builder = LookupElementBuilder.create(entry.getKey());
+            builder = builder.withTypeText(entry.getValue().controllerClass, true);
             completionResultSet.addElement(builder);
-            it.remove();
         }
     }
 
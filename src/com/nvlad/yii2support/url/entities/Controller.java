@@ -0,0 +1,35 @@
+package com.nvlad.yii2support.url.entities;
+
+import com.intellij.openapi.util.text.StringUtil;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class Controller {
+    public String parentClass;
+    public Map<String, Route> actions;
+
+    public Controller() {
+        actions = new LinkedHashMap<>();
+    }
+
+    @Override
+    public int hashCode() {
+        return parentClass.hashCode() + actions.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+
+        if (!(obj instanceof Controller)) {
+            return false;
+        }
+
+        Controller controller = (Controller) obj;
+        return StringUtil.equals(this.parentClass, controller.parentClass)
+                && this.actions.equals(controller.actions);
+    }
+}
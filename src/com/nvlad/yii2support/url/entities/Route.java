@@ -0,0 +1,41 @@
+package com.nvlad.yii2support.url.entities;
+
+import com.intellij.openapi.util.text.StringUtil;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class Route {
+    public String controllerClass;
+    public String method;
+    public Map<String, String> parameters;
+
+    public Route() {
+        parameters = new LinkedHashMap<>();
+    }
+
+    public String getMethodFQN() {
+        return controllerClass + "." + method;
+    }
+
+    @Override
+    public int hashCode() {
+        return controllerClass.hashCode() + method.hashCode() + parameters.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+
+        if (!(obj instanceof Route)) {
+            return false;
+        }
+
+        Route route = (Route) obj;
+        return StringUtil.equals(this.controllerClass, route.controllerClass)
+                && StringUtil.equals(this.method, route.method)
+                && this.parameters.equals(route.parameters);
+    }
+}
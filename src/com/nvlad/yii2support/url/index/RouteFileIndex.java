@@ -0,0 +1,179 @@
+package com.nvlad.yii2support.url.index;
+
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.util.indexing.*;
+import com.intellij.util.io.DataExternalizer;
+import com.intellij.util.io.DataInputOutputUtil;
+import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.IOUtil;
+import com.intellij.util.io.KeyDescriptor;
+import com.jetbrains.php.lang.PhpFileType;
+import com.jetbrains.php.lang.psi.elements.Method;
+import com.jetbrains.php.lang.psi.elements.Parameter;
+import com.jetbrains.php.lang.psi.elements.PhpClass;
+import com.jetbrains.php.lang.psi.resolve.types.PhpType;
+import com.nvlad.yii2support.common.UrlUtils;
+import com.nvlad.yii2support.url.entities.Controller;
+import com.nvlad.yii2support.url.entities.Route;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Own actions and parent class of controllers and of classes which declare actions, keyed by class FQN.
+ * Inherited actions are resolved on read through entries of parent classes.
+ */
+public class RouteFileIndex extends FileBasedIndexExtension<String, Controller> {
+    public static final ID<String, Controller> identity = ID.create("Yii2Support.RouteFileIndex");
+    private final RouteDataIndexer myRouteDataIndexer;
+    private final RouteDataExternalizer myRouteDataExternalizer;
+    private final FileBasedIndex.InputFilter myInputFilter;
+
+    public RouteFileIndex() {
+        myRouteDataIndexer = new RouteDataIndexer();
+        myRouteDataExternalizer = new RouteDataExternalizer();
+        myInputFilter = new DefaultFileTypeSpecificInputFilter(PhpFileType.INSTANCE);
+    }
+
+    @NotNull
+    @Override
+    public ID<String, Controller> getName() {
+        return identity;
+    }
+
+    @NotNull
+    @Override
+    public DataIndexer<String, Controller, FileContent> getIndexer() {
+        return myRouteDataIndexer;
+    }
+
+    @NotNull
+    @Override
+    public KeyDescriptor<String> getKeyDescriptor() {
+        return EnumeratorStringDescriptor.INSTANCE;
+    }
+
+    @NotNull
+    @Override
+    public DataExternalizer<Controller> getValueExternalizer() {
+        return myRouteDataExternalizer;
+    }
+
+    @Override
+    public int getVersion() {
+        return 3;
+    }
+
+    @NotNull
+    @Override
+    public FileBasedIndex.InputFilter getInputFilter() {
+        return myInputFilter;
+    }
+
+    @Override
+    public boolean dependsOnFileContent() {
+        return true;
+    }
+
+    private static class RouteDataIndexer implements DataIndexer<String, Controller, FileContent> {
+        @Override
+        @NotNull
+        public Map<String, Controller> map(@NotNull final FileContent inputData) {
+            final CharSequence content = inputData.getContentAsText();
+            if (!StringUtil.contains(content, "Controller") && !StringUtil.contains(content, "function action")) {
+                return Collections.emptyMap();
+            }
+
+            final Map<String, Controller> map = new HashMap<>();
+            for (PhpClass phpClass : PsiTreeUtil.findChildrenOfType(inputData.getPsiFile(), PhpClass.class)) {
+                if (phpClass.isInterface() || phpClass.isTrait() || phpClass.getSuperFQN() == null) {
+                    continue;
+                }
+
+                Controller controller = new Controller();
+                controller.parentClass = phpClass.getSuperFQN();
+                for (Method method : phpClass.getOwnMethods()) {
+                    final String actionId = UrlUtils.getActionId(method.getName());
+                    if (actionId == null) {
+                        continue;
+                    }
+
+                    Route route = new Route();
+                    route.controllerClass = phpClass.getFQN();
+                    route.method = method.getName();
+                    for (Parameter parameter : method.getParameters()) {
+                        final PhpType type = parameter.getType();
+                        route.parameters.put(parameter.getName(), type.isComplete() ? type.toString() : "");
+                    }
+
+                    controller.actions.put(actionId, route);
+                }
+
+                // Intermediate base controllers without actions are kept to link controllers with their parents
+                if (controller.actions.isEmpty() && !phpClass.getName().endsWith("Controller")) {
+                    continue;
+                }
+
+                map.put(phpClass.getFQN(), controller);
+            }
+
+            return map;
+        }
+    }
+
+    private static class RouteDataExternalizer implements DataExternalizer<Controller> {
+        @Override
+        public void save(@NotNull DataOutput dataOutput, @NotNull Controller controller) throws IOException {
+            IOUtil.writeUTF(dataOutput, controller.parentClass);
+            DataInputOutputUtil.writeINT(dataOutput, controller.actions.size());
+            for (Map.Entry<String, Route> action : controller.actions.entrySet()) {
+                IOUtil.writeUTF(dataOutput, action.getKey());
+                saveRoute(dataOutput, action.getValue());
+            }
+        }
+
+        @Override
+        @NotNull
+        public Controller read(@NotNull DataInput dataInput) throws IOException {
+            Controller controller = new Controller();
+            controller.parentClass = IOUtil.readUTF(dataInput);
+
+            final int actionCount = DataInputOutputUtil.readINT(dataInput);
+            for (int i = 0; i < actionCount; i++) {
+                controller.actions.put(IOUtil.readUTF(dataInput), readRoute(dataInput));
+            }
+
+            return controller;
+        }
+
+        private static void saveRoute(@NotNull DataOutput dataOutput, @NotNull Route route) throws IOException {
+            IOUtil.writeUTF(dataOutput, route.controllerClass);
+            IOUtil.writeUTF(dataOutput, route.method);
+            DataInputOutputUtil.writeINT(dataOutput, route.parameters.size());
+            for (Map.Entry<String, String> parameter : route.parameters.entrySet()) {
+                IOUtil.writeUTF(dataOutput, parameter.getKey());
+                IOUtil.writeUTF(dataOutput, parameter.getValue());
+            }
+        }
+
+        @NotNull
+        private static Route readRoute(@NotNull DataInput dataInput) throws IOException {
+            Route route = new Route();
+            route.controllerClass = IOUtil.readUTF(dataInput);
+            route.method = IOUtil.readUTF(dataInput);
+
+            final int parameterCount = DataInputOutputUtil.readINT(dataInput);
+            for (int i = 0; i < parameterCount; i++) {
+                route.parameters.put(IOUtil.readUTF(dataInput), IOUtil.readUTF(dataInput));
+            }
+
+            return route;
+        }
+    }
+}
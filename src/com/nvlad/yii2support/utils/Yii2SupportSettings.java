@@ -5,9 +5,12 @@ import com.intellij.openapi.components.ServiceManager;
 import com.intellij.openapi.components.State;
 import com.intellij.openapi.components.Storage;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.ModificationTracker;
+import com.intellij.openapi.util.SimpleModificationTracker;
 import com.intellij.util.SmartList;
 import com.intellij.util.xmlb.XmlSerializerUtil;
 import com.intellij.util.xmlb.annotations.MapAnnotation;
+import com.intellij.util.xmlb.annotations.Transient;
 import com.nvlad.yii2support.common.YiiApplicationTemplate;
 import com.nvlad.yii2support.common.YiiApplicationUtils;
 import com.nvlad.yii2support.migrations.entities.MigrateCommand;
@@ -26,6 +29,8 @@ public class Yii2SupportSettings implements PersistentStateComponent<Yii2Support
     // Database Settings
     public String tablePrefix = "";
     public boolean insertWithTablePrefix = false;
+    @MapAnnotation(sortBeforeSave = false)
+    public Map<String, String> dataSourceMap;
 
     // View Settings
     public String defaultViewExtension = "php";
@@ -42,6 +47,7 @@ public class Yii2SupportSettings implements PersistentStateComponent<Yii2Support
     public Map<String, String> aliasMap;
 
     private Project myProject;
+    private final SimpleModificationTracker myModificationTracker = new SimpleModificationTracker();
 
     public Yii2SupportSettings() {
         viewPathMap = new LinkedHashMap<>();
@@ -51,6 +57,7 @@ public class Yii2SupportSettings implements PersistentStateComponent<Yii2Support
 
         migrateCommands =  new SmartList<>();
         aliasMap = new HashMap<>();
+        dataSourceMap = new LinkedHashMap<>();
     }
 
     public Yii2SupportSettings(Project project) {
@@ -75,10 +82,22 @@ public class Yii2SupportSettings implements PersistentStateComponent<Yii2Support
         }
 
         XmlSerializerUtil.copyBean(settings, this);
+        incModificationCount();
+    }
+
+    /**
+     * Tracker for cached values which depend on plugin settings.
+     */
+    @Transient
+    public ModificationTracker getModificationTracker() {
+        return myModificationTracker;
+    }
+
+    public void incModificationCount() {
+        myModificationTracker.incModificationCount();
     }
 
     public void initProjectConfiguration(Project project) {
-        YiiApplicationUtils.resetYiiRootPath(project);
         YiiApplicationTemplate template = YiiApplicationUtils.getAppTemplate(project, yiiRootPath);
         if (aliasMap.isEmpty()) {
             aliasMap.put("@vendor", "vendor");
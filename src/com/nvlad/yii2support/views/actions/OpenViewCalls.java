@@ -3,8 +3,11 @@ package com.nvlad.yii2support.views.actions;
 import com.intellij.openapi.actionSystem.AnAction;
 import com.intellij.openapi.actionSystem.AnActionEvent;
 import com.intellij.openapi.actionSystem.PlatformDataKeys;
+import com.intellij.openapi.application.ReadAction;
 import com.intellij.openapi.editor.Document;
 import com.intellij.openapi.editor.ex.util.EditorUtil;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressManager;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.ui.popup.ListPopup;
 import com.intellij.openapi.ui.popup.util.BaseListPopupStep;
@@ -13,15 +16,14 @@ import com.intellij.psi.PsiDocumentManager;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiFile;
 import com.intellij.psi.PsiReference;
-import com.intellij.psi.search.searches.ReferencesSearch;
 import com.intellij.psi.util.PsiTreeUtil;
 import com.intellij.ui.JBColor;
 import com.intellij.ui.ListCellRendererWithRightAlignedComponent;
 import com.intellij.ui.popup.list.ListPopupImpl;
 import com.jetbrains.php.PhpIcons;
-import com.jetbrains.php.lang.psi.elements.Include;
 import com.jetbrains.php.lang.psi.elements.MethodReference;
 import com.nvlad.yii2support.common.FileUtil;
+import com.nvlad.yii2support.views.index.RenderCallFileIndex;
 
 import javax.swing.*;
 import java.awt.*;
@@ -33,14 +35,22 @@ public class OpenViewCalls extends AnAction {
 
     @Override
     public void actionPerformed(AnActionEvent e) {
-        // TODO: insert action logic here
         PsiFile psiFile = e.getData(PlatformDataKeys.PSI_FILE);
         if (psiFile == null) {
             return;
         }
 
-        Collection<PsiReference> references = ReferencesSearch.search(psiFile).findAll();
-        references.removeIf(psiReference -> psiReference.getElement() instanceof Include);
+        // Render calls are resolved from PSI of every candidate file, so they are collected under modal progress
+        Collection<PsiReference> references;
+        try {
+            references = ProgressManager.getInstance().runProcessWithProgressSynchronously(
+                    () -> ReadAction.compute(() -> RenderCallFileIndex.findRenderReferences(psiFile)),
+                    "Searching View Render Calls",
+                    true,
+                    psiFile.getProject());
+        } catch (ProcessCanceledException ex) {
+            return;
+        }
 
         if (references.size() == 0) {
             return;
@@ -0,0 +1,29 @@
+package com.nvlad.yii2support.views.actions;
+
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.ui.Messages;
+import com.nvlad.yii2support.views.index.ViewIndexMetrics;
+import org.jetbrains.annotations.NotNull;
+
+public class ShowViewIndexMetrics extends AnAction {
+    private static final int RESET = 0;
+    private static final int TOGGLE = 1;
+
+    @Override
+    public void actionPerformed(@NotNull AnActionEvent e) {
+        final boolean enabled = ViewIndexMetrics.isEnabled();
+        final String[] options = {"Reset", enabled ? "Disable" : "Enable", "Close"};
+        final int choice = Messages.showDialog(e.getProject(), ViewIndexMetrics.getReport(),
+                "Yii2 View Index Metrics", options, options.length - 1, Messages.getInformationIcon());
+
+        switch (choice) {
+            case RESET:
+                ViewIndexMetrics.reset();
+                break;
+            case TOGGLE:
+                ViewIndexMetrics.setEnabled(!enabled);
+                break;
+        }
+    }
+}
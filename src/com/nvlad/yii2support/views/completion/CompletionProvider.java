@@ -3,9 +3,8 @@ package com.nvlad.yii2support.views.completion;
 import com.intellij.codeInsight.completion.CompletionParameters;
 import com.intellij.codeInsight.completion.CompletionResultSet;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.psi.PsiElement;
-import com.intellij.psi.PsiFile;
-import com.intellij.psi.PsiManager;
 import com.intellij.psi.search.GlobalSearchScope;
 import com.intellij.psi.util.PsiTreeUtil;
 import com.intellij.util.ProcessingContext;
@@ -18,6 +17,7 @@ import com.nvlad.yii2support.views.entities.ViewInfo;
 import com.nvlad.yii2support.views.entities.ViewResolve;
 import com.nvlad.yii2support.views.entities.ViewResolveFrom;
 import com.nvlad.yii2support.views.index.ViewFileIndex;
+import com.nvlad.yii2support.views.index.ViewKeyTree;
 import com.nvlad.yii2support.views.util.ViewUtil;
 import org.jetbrains.annotations.NotNull;
 
@@ -85,14 +85,8 @@ class CompletionProvider extends com.intellij.codeInsight.completion.CompletionP
 
         final String prefixFilter = resolve.key.substring(0, prefixLength);
         final Set<String> keys = new HashSet<>();
-        fileBasedIndex.processAllKeys(ViewFileIndex.identity, key -> {
-            if (key.startsWith(prefixFilter)) {
-                keys.add(key);
-            }
-            return true;
-        }, scope, null);
+        ViewKeyTree.getInstance(project).collectKeys(prefixFilter, keys);
 
-        final PsiManager psiManager = PsiManager.getInstance(project);
         boolean localViewSearch = false;
         if (resolve.from == ViewResolveFrom.View) {
             final String value = PhpUtil.getValue(viewParameter);
@@ -111,16 +105,14 @@ class CompletionProvider extends com.intellij.codeInsight.completion.CompletionP
                     continue;
                 }
 
-                PsiFile psiFile = psiManager.findFile(view.getVirtualFile());
-                if (psiFile != null) {
+                VirtualFile virtualFile = view.getVirtualFile();
+                if (virtualFile != null && virtualFile.isValid()) {
                     String insertText = key.substring(prefixLength);
                     if (insertText.endsWith(defaultViewExtension)) {
                         insertText = insertText.substring(0, insertText.length() - defaultViewExtension.length());
                     }
-                    completionResultSet.addElement(new ViewLookupElement(psiFile, insertText));
+                    completionResultSet.addElement(new ViewLookupElement(virtualFile, project, insertText));
                     break;
-                } else {
-                    System.out.println(view.fileUrl + " => not exists");
                 }
             }
         }
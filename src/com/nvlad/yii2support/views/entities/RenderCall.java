@@ -0,0 +1,56 @@
+package com.nvlad.yii2support.views.entities;
+
+import com.intellij.psi.PsiElement;
+import com.jetbrains.php.lang.psi.elements.MethodReference;
+import com.jetbrains.php.lang.psi.resolve.types.PhpType;
+import com.nvlad.yii2support.views.util.RenderUtil;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+public class RenderCall {
+    public MethodReference reference;
+    public PsiElement[] parameters;
+    public ViewResolve resolve;
+    public boolean localViewSearch;
+    /**
+     * Indexed Views of the render call application.
+     */
+    public Collection<ViewInfo> views;
+    /**
+     * Passed parameter names mapped to array elements or compact() arguments, null when they can not be detected.
+     */
+    @Nullable
+    public Map<String, PsiElement> arguments;
+    private volatile Map<String, PhpType> myArgumentTypes;
+
+    public boolean hasView() {
+        for (ViewInfo view : views) {
+            if (!localViewSearch || resolve.theme.equals(view.theme)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    public Set<String> getViewParameters() {
+        final Set<String> result = new HashSet<>();
+        for (ViewInfo view : views) {
+            result.addAll(view.parameters);
+        }
+
+        return result;
+    }
+
+    public Map<String, PhpType> getArgumentTypes() {
+        if (myArgumentTypes == null) {
+            myArgumentTypes = RenderUtil.getViewArguments(reference);
+        }
+
+        return myArgumentTypes;
+    }
+}
@@ -2,15 +2,15 @@ package com.nvlad.yii2support.views.entities;
 
 import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.openapi.vfs.VirtualFile;
-import com.intellij.openapi.vfs.VirtualFileManager;
+import com.intellij.openapi.vfs.newvfs.ManagingFS;
+import com.intellij.util.indexing.FileBasedIndex;
 import com.intellij.util.indexing.FileContent;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.Arrays;
 import java.util.Collection;
 
 public class ViewInfo {
-    public String fileUrl;
+    public int fileId;
     public String application;
     public String theme;
     public Collection<String> parameters;
@@ -22,13 +22,13 @@ public class ViewInfo {
 
     public ViewInfo(FileContent inputData) {
         myVirtualFile = inputData.getFile();
-        fileUrl = myVirtualFile.getUrl();
+        fileId = FileBasedIndex.getFileId(myVirtualFile);
     }
 
     @Nullable
     public VirtualFile getVirtualFile() {
         if (myVirtualFile == null) {
-            myVirtualFile = VirtualFileManager.getInstance().findFileByUrl(fileUrl);
+            myVirtualFile = ManagingFS.getInstance().findFileById(fileId);
         }
 
         return myVirtualFile;
@@ -36,7 +36,7 @@ public class ViewInfo {
 
     @Override
     public int hashCode() {
-        return fileUrl.hashCode() + application.hashCode() + theme.hashCode() + parameters.hashCode();
+        return fileId + application.hashCode() + theme.hashCode() + parameters.hashCode();
     }
 
     @Override
@@ -51,9 +51,9 @@ public class ViewInfo {
         }
 
         ViewInfo viewInfo = (ViewInfo) obj;
-        return StringUtil.equals(this.fileUrl, viewInfo.fileUrl)
+        return this.fileId == viewInfo.fileId
                 && StringUtil.equals(this.application, viewInfo.application)
                 && StringUtil.equals(this.theme, viewInfo.theme)
-                && Arrays.equals(new Collection[]{this.parameters}, new Collection[]{viewInfo.parameters});
+                && this.parameters.equals(viewInfo.parameters);
     }
 }
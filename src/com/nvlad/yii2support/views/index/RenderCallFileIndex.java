@@ -0,0 +1,195 @@
+package com.nvlad.yii2support.views.index;
+
+import com.intellij.openapi.util.io.FileUtilRt;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.psi.PsiReference;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.util.SmartList;
+import com.intellij.util.indexing.*;
+import com.intellij.util.io.DataExternalizer;
+import com.intellij.util.io.DataInputOutputUtil;
+import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.KeyDescriptor;
+import com.jetbrains.php.lang.PhpFileType;
+import com.jetbrains.php.lang.psi.elements.MethodReference;
+import com.jetbrains.php.lang.psi.elements.ParameterList;
+import com.jetbrains.php.lang.psi.elements.StringLiteralExpression;
+import com.nvlad.yii2support.views.util.ViewUtil;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Render calls ("render", "renderAjax", "renderPartial" with string literal view) keyed by view file name
+ * without extension. Values are offsets of view arguments in the calling file.
+ */
+public class RenderCallFileIndex extends FileBasedIndexExtension<String, List<Integer>> {
+    public static final ID<String, List<Integer>> identity = ID.create("Yii2Support.RenderCallFileIndex");
+    private final RenderCallDataIndexer myRenderCallDataIndexer;
+    private final OffsetsDataExternalizer myOffsetsDataExternalizer;
+    private final FileBasedIndex.InputFilter myInputFilter;
+
+    public RenderCallFileIndex() {
+        myRenderCallDataIndexer = new RenderCallDataIndexer();
+        myOffsetsDataExternalizer = new OffsetsDataExternalizer();
+        myInputFilter = new DefaultFileTypeSpecificInputFilter(PhpFileType.INSTANCE);
+    }
+
+    /**
+     * Returns references of render calls which resolve to the view file.
+     */
+    @NotNull
+    public static Collection<PsiReference> findRenderReferences(@NotNull PsiFile viewFile) {
+        final Collection<PsiReference> result = new LinkedHashSet<>();
+        final PsiManager psiManager = viewFile.getManager();
+        final String key = FileUtilRt.getNameWithoutExtension(viewFile.getName());
+
+        FileBasedIndex.getInstance().processValues(identity, key, null, (virtualFile, offsets) -> {
+            final PsiFile psiFile = psiManager.findFile(virtualFile);
+            if (psiFile == null) {
+                return true;
+            }
+
+            for (int offset : offsets) {
+                final StringLiteralExpression literal = PsiTreeUtil.getParentOfType(psiFile.findElementAt(offset), StringLiteralExpression.class, false);
+                if (literal == null) {
+                    continue;
+                }
+
+                for (PsiReference reference : literal.getReferences()) {
+                    if (reference.isReferenceTo(viewFile)) {
+                        result.add(reference);
+                    }
+                }
+            }
+
+            return true;
+        }, GlobalSearchScope.projectScope(viewFile.getProject()));
+
+        return result;
+    }
+
+    @NotNull
+    @Override
+    public ID<String, List<Integer>> getName() {
+        return identity;
+    }
+
+    @NotNull
+    @Override
+    public DataIndexer<String, List<Integer>, FileContent> getIndexer() {
+        return myRenderCallDataIndexer;
+    }
+
+    @NotNull
+    @Override
+    public KeyDescriptor<String> getKeyDescriptor() {
+        return EnumeratorStringDescriptor.INSTANCE;
+    }
+
+    @NotNull
+    @Override
+    public DataExternalizer<List<Integer>> getValueExternalizer() {
+        return myOffsetsDataExternalizer;
+    }
+
+    @Override
+    public int getVersion() {
+        return 1;
+    }
+
+    @NotNull
+    @Override
+    public FileBasedIndex.InputFilter getInputFilter() {
+        return myInputFilter;
+    }
+
+    @Override
+    public boolean dependsOnFileContent() {
+        return true;
+    }
+
+    private static class RenderCallDataIndexer implements DataIndexer<String, List<Integer>, FileContent> {
+        @Override
+        @NotNull
+        public Map<String, List<Integer>> map(@NotNull final FileContent inputData) {
+            if (!StringUtil.contains(inputData.getContentAsText(), "render")) {
+                return Collections.emptyMap();
+            }
+
+            final Map<String, List<Integer>> map = new HashMap<>();
+            for (MethodReference reference : PsiTreeUtil.findChildrenOfType(inputData.getPsiFile(), MethodReference.class)) {
+                if (!isRenderMethod(reference.getName())) {
+                    continue;
+                }
+
+                final ParameterList parameterList = reference.getParameterList();
+                if (parameterList == null || parameterList.getParameters().length == 0) {
+                    continue;
+                }
+
+                final PsiElement view = parameterList.getParameters()[0];
+                if (!(view instanceof StringLiteralExpression)) {
+                    continue;
+                }
+
+                String key = ((StringLiteralExpression) view).getContents();
+                key = FileUtilRt.getNameWithoutExtension(key.substring(key.lastIndexOf('/') + 1));
+                if (!key.isEmpty()) {
+                    map.computeIfAbsent(key, k -> new SmartList<>()).add(view.getTextOffset());
+                }
+            }
+
+            return map;
+        }
+
+        private static boolean isRenderMethod(String name) {
+            for (String renderMethod : ViewUtil.renderMethods) {
+                if (renderMethod.equals(name)) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+    }
+
+    private static class OffsetsDataExternalizer implements DataExternalizer<List<Integer>> {
+        @Override
+        public void save(@NotNull DataOutput dataOutput, @NotNull List<Integer> offsets) throws IOException {
+            DataInputOutputUtil.writeINT(dataOutput, offsets.size());
+            int previous = 0;
+            for (int offset : offsets) {
+                DataInputOutputUtil.writeINT(dataOutput, offset - previous);
+                previous = offset;
+            }
+        }
+
+        @Override
+        @NotNull
+        public List<Integer> read(@NotNull DataInput dataInput) throws IOException {
+            final int size = DataInputOutputUtil.readINT(dataInput);
+            final List<Integer> offsets = new ArrayList<>(size);
+            int previous = 0;
+            for (int i = 0; i < size; i++) {
+                previous += DataInputOutputUtil.readINT(dataInput);
+                offsets.add(previous);
+            }
+
+            return offsets;
+        }
+    }
+}
@@ -1,9 +1,11 @@
 package com.nvlad.yii2support.views.index;
 
+import com.intellij.openapi.fileTypes.FileType;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.util.indexing.*;
 import com.intellij.util.io.DataExternalizer;
+import com.intellij.util.io.DataInputOutputUtil;
 import com.intellij.util.io.EnumeratorStringDescriptor;
 import com.intellij.util.io.KeyDescriptor;
 import com.jetbrains.php.lang.PhpFileType;
@@ -16,7 +18,9 @@ import org.jetbrains.annotations.NotNull;
 
 import java.io.DataInput;
 import java.io.DataOutput;
+import java.io.DataOutputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -60,7 +64,7 @@ public class ViewFileIndex extends FileBasedIndexExtension<String, ViewInfo> {
 
     @Override
     public int getVersion() {
-        return 30;
+        return 35;
     }
 
     @NotNull
@@ -78,31 +82,41 @@ public class ViewFileIndex extends FileBasedIndexExtension<String, ViewInfo> {
         @Override
         @NotNull
         public Map<String, ViewInfo> map(@NotNull final FileContent inputData) {
+            final boolean collectMetrics = ViewIndexMetrics.isEnabled();
+            final long startedAt = collectMetrics ? System.nanoTime() : 0;
             final Project project = inputData.getProject();
 
             ViewResolve resolve = ViewUtil.resolveView(inputData.getFile(), project);
+            final long resolvedAt = collectMetrics ? System.nanoTime() : 0;
             if (resolve == null) {
+                if (collectMetrics) {
+                    ViewIndexMetrics.fileMapped(0, resolvedAt - startedAt, resolvedAt - startedAt, 0);
+                }
                 return Collections.emptyMap();
             }
 
-            final String absolutePath = inputData.getFile().getPath();
-            System.out.println("ViewDataIndexer.map > " + absolutePath + " => " + resolve.key);
-
             Map<String, ViewInfo> map = new HashMap<>();
             ViewInfo viewInfo = new ViewInfo(inputData);
             viewInfo.application = resolve.application;
             viewInfo.theme = resolve.theme;
+            final long variablesStartedAt = collectMetrics ? System.nanoTime() : 0;
             viewInfo.parameters = ViewUtil.getPhpViewVariables(inputData.getPsiFile());
+            final long variablesFinishedAt = collectMetrics ? System.nanoTime() : 0;
 
             map.put(resolve.key, viewInfo);
             if (resolve.key.startsWith("@app/modules/") && !resolve.relativePath.startsWith("/modules/")) {
                 map.put("@app/views/modules" + resolve.key.substring(12), viewInfo);
-                System.out.println("ViewDataIndexer.map > " + absolutePath + " => @app/views/modules" + resolve.key.substring(12));
             }
 
             if (resolve.key.startsWith("@app/widgets/") && !resolve.relativePath.startsWith("/widgets/")) {
                 map.put("@app/views/widgets" + resolve.key.substring(12), viewInfo);
-                System.out.println("ViewDataIndexer.map > " + absolutePath + " => @app/views/widgets" + resolve.key.substring(12));
+            }
+
+            if (collectMetrics) {
+                ViewIndexMetrics.fileMapped(map.size(),
+                        System.nanoTime() - startedAt,
+                        resolvedAt - startedAt,
+                        variablesFinishedAt - variablesStartedAt);
             }
 
             return map;
@@ -112,59 +126,65 @@ public class ViewFileIndex extends FileBasedIndexExtension<String, ViewInfo> {
     private static class ViewInfoDataExternalizer implements DataExternalizer<ViewInfo> {
         @Override
         public void save(@NotNull DataOutput dataOutput, @NotNull ViewInfo viewInfo) throws IOException {
-            System.out.println("ViewInfoDataExternalizer.save ==> " + viewInfo.fileUrl);
+            final boolean collectMetrics = ViewIndexMetrics.isEnabled() && dataOutput instanceof DataOutputStream;
+            final int startSize = collectMetrics ? ((DataOutputStream) dataOutput).size() : 0;
 
-            writeString(dataOutput, viewInfo.fileUrl);
+            DataInputOutputUtil.writeINT(dataOutput, viewInfo.fileId);
             writeString(dataOutput, viewInfo.application);
             writeString(dataOutput, viewInfo.theme);
-            dataOutput.writeInt(viewInfo.parameters.size());
+            DataInputOutputUtil.writeINT(dataOutput, viewInfo.parameters.size());
             for (String parameter : viewInfo.parameters) {
                 writeString(dataOutput, parameter);
             }
+
+            if (collectMetrics) {
+                ViewIndexMetrics.valueSaved(((DataOutputStream) dataOutput).size() - startSize);
+            }
         }
 
         @Override
         @NotNull
         public ViewInfo read(@NotNull DataInput dataInput) throws IOException {
             ViewInfo viewInfo = new ViewInfo();
-            viewInfo.fileUrl = readString(dataInput);
+            viewInfo.fileId = DataInputOutputUtil.readINT(dataInput);
             viewInfo.application = readString(dataInput);
             viewInfo.theme = readString(dataInput);
 
-            final int parameterCount = dataInput.readInt();
+            final int parameterCount = DataInputOutputUtil.readINT(dataInput);
             viewInfo.parameters = new HashSet<>(parameterCount);
             for (int i = 0; i < parameterCount; i++) {
                 viewInfo.parameters.add(readString(dataInput));
             }
 
-            System.out.println("ViewInfoDataExternalizer.read <== " + viewInfo.fileUrl);
             return viewInfo;
         }
 
-        private void writeString(@NotNull DataOutput dataOutput, @NotNull String data) throws IOException {
-            byte[] bytes = data.getBytes();
-            dataOutput.writeInt(bytes.length);
-
-            if (bytes.length > 0) {
-                dataOutput.write(bytes);
-            }
+        /**
+         * Strings are stored inline as UTF-8 with varint length, so values do not depend on storage outside the index.
+         */
+        private static void writeString(@NotNull DataOutput dataOutput, @NotNull String value) throws IOException {
+            final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            DataInputOutputUtil.writeINT(dataOutput, bytes.length);
+            dataOutput.write(bytes);
         }
 
         @NotNull
-        private String readString(@NotNull DataInput dataInput) throws IOException {
-            final int length = dataInput.readInt();
-            if (length == 0) {
-                return "";
-            }
-
-            byte[] bytes = new byte[length];
-            dataInput.readFully(bytes, 0, length);
+        private static String readString(@NotNull DataInput dataInput) throws IOException {
+            final byte[] bytes = new byte[DataInputOutputUtil.readINT(dataInput)];
+            dataInput.readFully(bytes);
 
-            return new String(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
         }
     }
 
+    /**
+     * Accepts View file types outside of "vendor" directories, other files outside of View paths are rejected
+     * by indexer before PSI is built.
+     * Filter result is not re-evaluated on Yii root, alias or path map changes, so it must not depend on project state.
+     */
     private class ViewFileInputFilter implements FileBasedIndex.InputFilter {
+        private static final String VENDOR_DIRECTORY = "/vendor/";
+
         private boolean twigSupported;
 
         ViewFileInputFilter() {
@@ -177,15 +197,15 @@ public class ViewFileIndex extends FileBasedIndexExtension<String, ViewInfo> {
 
         @Override
         public boolean acceptInput(@NotNull VirtualFile virtualFile) {
-            if (virtualFile.getFileType() == PhpFileType.INSTANCE) {
-                return true;
-            }
+            return isViewFileType(virtualFile.getFileType()) && !virtualFile.getPath().contains(VENDOR_DIRECTORY);
+        }
 
-            if (virtualFile.getFileType() == SmartyFileType.INSTANCE) {
+        private boolean isViewFileType(FileType fileType) {
+            if (fileType == PhpFileType.INSTANCE || fileType == SmartyFileType.INSTANCE) {
                 return true;
             }
 
-            return twigSupported && virtualFile.getFileType() == TwigFileType.INSTANCE;
+            return twigSupported && fileType == TwigFileType.INSTANCE;
         }
     }
 }
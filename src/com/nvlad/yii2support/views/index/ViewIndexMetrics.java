@@ -0,0 +1,86 @@
+package com.nvlad.yii2support.views.index;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.text.DateFormat;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters for {@link ViewFileIndex} indexing work, collected only while enabled.
+ */
+public class ViewIndexMetrics {
+    private static volatile boolean ourEnabled = false;
+    private static volatile long ourStartedAt = System.currentTimeMillis();
+
+    private static final AtomicLong filesMapped = new AtomicLong();
+    private static final AtomicLong filesResolved = new AtomicLong();
+    private static final AtomicLong keysEmitted = new AtomicLong();
+    private static final AtomicLong mapNanos = new AtomicLong();
+    private static final AtomicLong resolveViewNanos = new AtomicLong();
+    private static final AtomicLong viewVariablesNanos = new AtomicLong();
+    private static final AtomicLong valuesSaved = new AtomicLong();
+    private static final AtomicLong bytesSerialized = new AtomicLong();
+
+    public static boolean isEnabled() {
+        return ourEnabled;
+    }
+
+    public static void setEnabled(boolean enabled) {
+        if (enabled && !ourEnabled) {
+            reset();
+        }
+
+        ourEnabled = enabled;
+    }
+
+    public static void reset() {
+        ourStartedAt = System.currentTimeMillis();
+        filesMapped.set(0);
+        filesResolved.set(0);
+        keysEmitted.set(0);
+        mapNanos.set(0);
+        resolveViewNanos.set(0);
+        viewVariablesNanos.set(0);
+        valuesSaved.set(0);
+        bytesSerialized.set(0);
+    }
+
+    static void fileMapped(int keys, long totalNanos, long resolveNanos, long variablesNanos) {
+        filesMapped.incrementAndGet();
+        if (keys > 0) {
+            filesResolved.incrementAndGet();
+            keysEmitted.addAndGet(keys);
+        }
+        mapNanos.addAndGet(totalNanos);
+        resolveViewNanos.addAndGet(resolveNanos);
+        viewVariablesNanos.addAndGet(variablesNanos);
+    }
+
+    static void valueSaved(long bytes) {
+        valuesSaved.incrementAndGet();
+        bytesSerialized.addAndGet(bytes);
+    }
+
+    @NotNull
+    public static String getReport() {
+        if (!ourEnabled) {
+            return "Collection of View index metrics is disabled.";
+        }
+
+        return "Collected since " + DateFormat.getDateTimeInstance().format(new Date(ourStartedAt)) + "\n\n"
+                + "Files mapped: " + filesMapped.get() + "\n"
+                + "Files resolved as View: " + filesResolved.get() + "\n"
+                + "Keys emitted: " + keysEmitted.get() + "\n"
+                + "Indexer time: " + toMillis(mapNanos.get()) + " ms\n"
+                + "  resolveView: " + toMillis(resolveViewNanos.get()) + " ms\n"
+                + "  getPhpViewVariables: " + toMillis(viewVariablesNanos.get()) + " ms\n"
+                + "Values serialized: " + valuesSaved.get() + "\n"
+                + "Serialized bytes: " + bytesSerialized.get();
+    }
+
+    private static long toMillis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+}
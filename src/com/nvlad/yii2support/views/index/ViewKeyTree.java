@@ -0,0 +1,97 @@
+package com.nvlad.yii2support.views.index;
+
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Key;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.openapi.vfs.VirtualFileManager;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.util.indexing.FileBasedIndex;
+import com.nvlad.yii2support.utils.Yii2SupportSettings;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Directory tree over {@link ViewFileIndex} keys, so completion enumerates only Views under the typed directory.
+ * View keys depend on file paths only, so the tree is rebuilt on VFS structure, indexing or settings changes.
+ */
+public class ViewKeyTree {
+    private static final Key<CachedValue<ViewKeyTree>> CACHE_KEY = Key.create("Yii2Support.ViewKeyTree");
+
+    @NotNull
+    public static ViewKeyTree getInstance(@NotNull Project project) {
+        return CachedValuesManager.getManager(project).getCachedValue(project, CACHE_KEY, () -> CachedValueProvider.Result.create(
+                new ViewKeyTree(project),
+                VirtualFileManager.VFS_STRUCTURE_MODIFICATIONS,
+                DumbService.getInstance(project).getModificationTracker(),
+                Yii2SupportSettings.getInstance(project).getModificationTracker()
+        ), false);
+    }
+
+    private final Node myRoot = new Node();
+
+    private ViewKeyTree(Project project) {
+        FileBasedIndex.getInstance().processAllKeys(ViewFileIndex.identity, key -> {
+            add(key);
+            return true;
+        }, GlobalSearchScope.projectScope(project), null);
+    }
+
+    /**
+     * Collects keys starting with prefix. Only the subtree of the prefix directory is visited.
+     */
+    public void collectKeys(@NotNull String prefix, @NotNull Collection<String> result) {
+        final int lastSlash = prefix.lastIndexOf('/');
+        Node node = myRoot;
+        if (lastSlash != -1) {
+            for (String segment : split(prefix.substring(0, lastSlash))) {
+                node = node.children.get(segment);
+                if (node == null) {
+                    return;
+                }
+            }
+        }
+
+        final String namePrefix = prefix.substring(lastSlash + 1);
+        for (Map.Entry<String, Node> entry : node.children.entrySet()) {
+            if (entry.getKey().startsWith(namePrefix)) {
+                entry.getValue().collectKeys(result);
+            }
+        }
+    }
+
+    private void add(String key) {
+        Node node = myRoot;
+        for (String segment : split(key)) {
+            node = node.children.computeIfAbsent(segment, k -> new Node());
+        }
+
+        node.key = key;
+    }
+
+    private static List<String> split(String path) {
+        return StringUtil.split(path, "/");
+    }
+
+    private static class Node {
+        final Map<String, Node> children = new HashMap<>();
+        String key;
+
+        void collectKeys(Collection<String> result) {
+            if (key != null) {
+                result.add(key);
+            }
+
+            for (Node child : children.values()) {
+                child.collectKeys(result);
+            }
+        }
+    }
+}
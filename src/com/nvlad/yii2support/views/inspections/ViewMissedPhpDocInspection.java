@@ -4,7 +4,6 @@ import com.intellij.codeInspection.ProblemsHolder;
 import com.intellij.openapi.project.Project;
 import com.intellij.psi.PsiElementVisitor;
 import com.intellij.psi.PsiReference;
-import com.intellij.psi.search.searches.ReferencesSearch;
 import com.intellij.psi.util.PsiTreeUtil;
 import com.jetbrains.php.lang.documentation.phpdoc.psi.PhpDocVariable;
 import com.jetbrains.php.lang.inspections.PhpInspection;
@@ -12,7 +11,9 @@ import com.jetbrains.php.lang.psi.PhpFile;
 import com.jetbrains.php.lang.psi.elements.MethodReference;
 import com.jetbrains.php.lang.psi.resolve.types.PhpType;
 import com.jetbrains.php.lang.psi.visitors.PhpElementVisitor;
+import com.nvlad.yii2support.views.entities.RenderCall;
 import com.nvlad.yii2support.views.entities.ViewResolve;
+import com.nvlad.yii2support.views.index.RenderCallFileIndex;
 import com.nvlad.yii2support.views.util.RenderUtil;
 import com.nvlad.yii2support.views.util.ViewUtil;
 import org.jetbrains.annotations.NotNull;
@@ -59,7 +60,7 @@ public class ViewMissedPhpDocInspection extends PhpInspection {
             }
 
             private Map<String, String> getVariables(PhpFile phpFile) {
-                Collection<PsiReference> references = ReferencesSearch.search(phpFile).findAll();
+                Collection<PsiReference> references = RenderCallFileIndex.findRenderReferences(phpFile);
                 Map<String, String> result = new HashMap<>();
                 Map<String, PhpType> viewArgumentCollection = new LinkedHashMap<>();
                 for (PsiReference reference : references) {
@@ -68,7 +69,10 @@ public class ViewMissedPhpDocInspection extends PhpInspection {
                         continue;
                     }
 
-                    Map<String, PhpType> params = RenderUtil.getViewArguments(methodReference);
+                    final RenderCall renderCall = RenderUtil.getRenderCall(methodReference);
+                    Map<String, PhpType> params = renderCall != null
+                            ? renderCall.getArgumentTypes()
+                            : RenderUtil.getViewArguments(methodReference);
                     for (Map.Entry<String, PhpType> entry : params.entrySet()) {
                         if (viewArgumentCollection.containsKey(entry.getKey())) {
                             PhpType.PhpTypeBuilder typeBuilder = new PhpType.PhpTypeBuilder();
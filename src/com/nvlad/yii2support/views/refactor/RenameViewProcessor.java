@@ -1,6 +1,8 @@
 package com.nvlad.yii2support.views.refactor;
 
+import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
 import com.intellij.psi.PsiReference;
 import com.intellij.refactoring.RefactoringSettings;
 import com.intellij.refactoring.listeners.RefactoringElementListener;
@@ -11,7 +13,7 @@ import com.jetbrains.php.lang.psi.PhpPsiElementFactory;
 import com.jetbrains.php.lang.psi.elements.ParameterList;
 import com.jetbrains.php.lang.psi.elements.StringLiteralExpression;
 import com.nvlad.yii2support.utils.Yii2SupportSettings;
-import com.nvlad.yii2support.views.index.ViewFileIndex;
+import com.nvlad.yii2support.views.index.RenderCallFileIndex;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -38,7 +40,7 @@ public class RenameViewProcessor extends RenamePsiFileProcessor {
             return;
         }
 
-        for (PsiReference reference : findReferences(psiElement)) {
+        for (PsiReference reference : RenderCallFileIndex.findRenderReferences((PsiFile) psiElement)) {
             final PsiElement element = reference.getElement();
             if (element instanceof StringLiteralExpression) {
                 renders.add(element.getParent());
@@ -66,7 +68,18 @@ public class RenameViewProcessor extends RenamePsiFileProcessor {
                 }
             }
 
-            FileBasedIndex.getInstance().requestRebuild(ViewFileIndex.identity);
+            final FileBasedIndex fileBasedIndex = FileBasedIndex.getInstance();
+            final Set<VirtualFile> files = new HashSet<>();
+            files.add(psiElement.getContainingFile().getVirtualFile());
+            for (PsiElement render : renders) {
+                files.add(render.getContainingFile().getVirtualFile());
+            }
+
+            for (VirtualFile file : files) {
+                if (file != null) {
+                    fileBasedIndex.requestReindex(file);
+                }
+            }
         };
     }
 }
@@ -0,0 +1,48 @@
+package com.nvlad.yii2support.views.references;
+
+import com.intellij.openapi.application.QueryExecutorBase;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiReference;
+import com.intellij.psi.search.SearchScope;
+import com.intellij.psi.search.searches.ReferencesSearch;
+import com.intellij.util.Processor;
+import com.nvlad.yii2support.views.index.RenderCallFileIndex;
+import com.nvlad.yii2support.views.util.ViewUtil;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Finds render calls of a View through {@link RenderCallFileIndex}.
+ */
+public class ViewReferencesSearcher extends QueryExecutorBase<PsiReference, ReferencesSearch.SearchParameters> {
+    public ViewReferencesSearcher() {
+        super(true);
+    }
+
+    @Override
+    public void processQuery(@NotNull ReferencesSearch.SearchParameters queryParameters, @NotNull Processor<? super PsiReference> consumer) {
+        final PsiElement element = queryParameters.getElementToSearch();
+        if (!(element instanceof PsiFile)) {
+            return;
+        }
+
+        // Render calls are matched by base name, skip scripts, styles and other files outside of View paths
+        final VirtualFile virtualFile = ((PsiFile) element).getVirtualFile();
+        if (virtualFile == null || ViewUtil.resolveView(virtualFile, element.getProject()) == null) {
+            return;
+        }
+
+        final SearchScope scope = queryParameters.getEffectiveSearchScope();
+        for (PsiReference reference : RenderCallFileIndex.findRenderReferences((PsiFile) element)) {
+            final PsiFile file = reference.getElement().getContainingFile();
+            if (file.getVirtualFile() != null && !scope.contains(file.getVirtualFile())) {
+                continue;
+            }
+
+            if (!consumer.process(reference)) {
+                return;
+            }
+        }
+    }
+}
@@ -5,7 +5,6 @@ import com.intellij.openapi.project.Project;
 import com.intellij.util.indexing.FileBasedIndex;
 import com.nvlad.yii2support.utils.Yii2SupportSettings;
 import com.nvlad.yii2support.views.index.ViewFileIndex;
-import com.nvlad.yii2support.views.util.ViewUtil;
 import org.jetbrains.annotations.Nls;
 import org.jetbrains.annotations.Nullable;
 
@@ -71,10 +70,10 @@ public class ViewSettings implements Configurable {
             }
             mySettings.defaultViewExtension = defaultViewFileExt.getModel().getSelectedItem().toString();
 
-            ViewUtil.resetPathMapPatterns(myProject);
             FileBasedIndex.getInstance().requestRebuild(ViewFileIndex.identity);
         }
         mySettings.defaultViewClass = defaultViewClass.getText();
+        mySettings.incModificationCount();
     }
 
     @Override
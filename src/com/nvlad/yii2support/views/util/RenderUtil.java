@@ -1,15 +1,128 @@
 package com.nvlad.yii2support.views.util;
 
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.io.FileUtilRt;
 import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.util.ArrayUtil;
+import com.intellij.util.indexing.FileBasedIndex;
 import com.jetbrains.php.lang.psi.elements.*;
 import com.jetbrains.php.lang.psi.resolve.types.PhpType;
+import com.nvlad.yii2support.common.PhpUtil;
+import com.nvlad.yii2support.common.YiiApplicationUtils;
 import com.nvlad.yii2support.utils.Yii2SupportSettings;
+import com.nvlad.yii2support.views.entities.RenderCall;
+import com.nvlad.yii2support.views.entities.ViewResolve;
+import com.nvlad.yii2support.views.entities.ViewResolveFrom;
+import com.nvlad.yii2support.views.index.ViewFileIndex;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
 public class RenderUtil {
+    /**
+     * Returns render calls of the file with resolved View, computed once per PSI modification.
+     */
+    @NotNull
+    public static Map<MethodReference, RenderCall> getRenderCalls(@NotNull PsiFile file) {
+        return CachedValuesManager.getCachedValue(file, () -> CachedValueProvider.Result.create(
+                analyzeRenderCalls(file),
+                PsiModificationTracker.MODIFICATION_COUNT,
+                Yii2SupportSettings.getInstance(file.getProject()).getModificationTracker()
+        ));
+    }
+
+    @Nullable
+    public static RenderCall getRenderCall(@NotNull MethodReference reference) {
+        return getRenderCalls(reference.getContainingFile()).get(reference);
+    }
+
+    @NotNull
+    private static Map<MethodReference, RenderCall> analyzeRenderCalls(@NotNull PsiFile file) {
+        final Map<MethodReference, RenderCall> result = new HashMap<>();
+        final Project project = file.getProject();
+        final GlobalSearchScope scope = GlobalSearchScope.projectScope(project);
+        final String defaultViewExtension = Yii2SupportSettings.getInstance(project).defaultViewExtension;
+        String application = null;
+
+        for (MethodReference reference : PsiTreeUtil.findChildrenOfType(file, MethodReference.class)) {
+            final String name = reference.getName();
+            if (name == null || !ArrayUtil.contains(name, ViewUtil.renderMethods)) {
+                continue;
+            }
+
+            final PsiElement[] parameters = reference.getParameters();
+            if (parameters.length == 0 || !ViewUtil.isValidRenderMethod(reference)) {
+                continue;
+            }
+
+            final ViewResolve resolve = ViewUtil.resolveView(parameters[0]);
+            if (resolve == null) {
+                continue;
+            }
+
+            String key = resolve.key;
+            if (FileUtilRt.getExtension(key).isEmpty()) {
+                key = key + '.' + defaultViewExtension;
+            }
+
+            if (application == null) {
+                application = YiiApplicationUtils.getApplicationName(file);
+            }
+
+            final RenderCall renderCall = new RenderCall();
+            renderCall.reference = reference;
+            renderCall.parameters = parameters;
+            renderCall.resolve = resolve;
+            renderCall.views = FileBasedIndex.getInstance().getValues(ViewFileIndex.identity, key, scope);
+            final String callApplication = application;
+            renderCall.views.removeIf(view -> !callApplication.equals(view.application));
+            if (resolve.from == ViewResolveFrom.View) {
+                final String value = PhpUtil.getValue(parameters[0]);
+                renderCall.localViewSearch = !value.startsWith("@") && !value.startsWith("//");
+            }
+            renderCall.arguments = parameters.length > 1 ? getPassedArguments(parameters[1]) : new LinkedHashMap<>();
+
+            result.put(reference, renderCall);
+        }
+
+        return result;
+    }
+
+    @Nullable
+    private static Map<String, PsiElement> getPassedArguments(PsiElement parameter) {
+        final Map<String, PsiElement> result = new LinkedHashMap<>();
+        if (parameter instanceof ArrayCreationExpression) {
+            for (ArrayHashElement element : ((ArrayCreationExpression) parameter).getHashElements()) {
+                if (element.getKey() instanceof StringLiteralExpression) {
+                    result.put(((StringLiteralExpression) element.getKey()).getContents(), element);
+                }
+            }
+
+            return result;
+        }
+
+        if (parameter instanceof FunctionReference && "compact".equals(((FunctionReference) parameter).getName())) {
+            for (PsiElement element : ((FunctionReference) parameter).getParameters()) {
+                if (element instanceof StringLiteralExpression) {
+                    result.put(((StringLiteralExpression) element).getContents(), element);
+                }
+            }
+
+            return result;
+        }
+
+        return null;
+    }
+
     @NotNull
     public static Map<String, PhpType> getViewArguments(MethodReference reference) {
         final Map<String, PhpType> result = new LinkedHashMap<>();
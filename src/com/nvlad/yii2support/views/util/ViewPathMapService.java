@@ -0,0 +1,127 @@
+package com.nvlad.yii2support.views.util;
+
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.project.Project;
+import com.nvlad.yii2support.utils.Yii2SupportSettings;
+import com.nvlad.yii2support.views.entities.ViewResolve;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Maps theme paths to View paths using "viewPathMap" setting compiled into one pattern.
+ * Compiled map is immutable and shared between indexing threads, it is rebuilt when settings change.
+ */
+public class ViewPathMapService {
+    public static ViewPathMapService getInstance(@NotNull Project project) {
+        return ServiceManager.getService(project, ViewPathMapService.class);
+    }
+
+    private final Project myProject;
+    private volatile CompiledPathMap myPathMap;
+
+    public ViewPathMapService(Project project) {
+        myProject = project;
+    }
+
+    /**
+     * Returns View path for path started with "@app" or null if no map entry matches.
+     * Theme of matched entry with single "*" is stored in result.
+     */
+    @Nullable
+    public String mapPath(@NotNull String path, @NotNull ViewResolve result) {
+        final Yii2SupportSettings settings = Yii2SupportSettings.getInstance(myProject);
+        final long settingsStamp = settings.getModificationTracker().getModificationCount();
+
+        CompiledPathMap pathMap = myPathMap;
+        if (pathMap == null || pathMap.settingsStamp != settingsStamp) {
+            pathMap = new CompiledPathMap(settings.viewPathMap, settingsStamp);
+            myPathMap = pathMap;
+        }
+
+        return pathMap.map(path, result);
+    }
+
+    private static class CompiledPathMap {
+        final long settingsStamp;
+        final Pattern pattern;
+        final List<Entry> entries = new ArrayList<>();
+
+        CompiledPathMap(Map<String, String> viewPathMap, long settingsStamp) {
+            this.settingsStamp = settingsStamp;
+
+            int group = 1;
+            final StringBuilder patternString = new StringBuilder("^(?:");
+            for (Map.Entry<String, String> mapEntry : viewPathMap.entrySet()) {
+                final String key = mapEntry.getKey();
+                final String[] parts = key.split("\\*", -1);
+                final boolean captureTheme = parts.length == 2;
+
+                final Entry entry = new Entry(group, captureTheme ? group + 1 : -1, mapEntry.getValue());
+                if (!entries.isEmpty()) {
+                    patternString.append('|');
+                }
+                patternString.append('(');
+                for (int i = 0; i < parts.length; i++) {
+                    if (i > 0) {
+                        patternString.append(captureTheme ? "([\\w-]+)" : "(?:[\\w-]+)");
+                    }
+                    if (!parts[i].isEmpty()) {
+                        patternString.append(Pattern.quote(parts[i]));
+                    }
+                }
+                patternString.append(')');
+
+                entries.add(entry);
+                group += captureTheme ? 2 : 1;
+            }
+            patternString.append(").+");
+
+            pattern = entries.isEmpty() ? null : Pattern.compile(patternString.toString());
+        }
+
+        @Nullable
+        String map(String path, ViewResolve result) {
+            if (pattern == null) {
+                return null;
+            }
+
+            final Matcher matcher = pattern.matcher(path);
+            if (!matcher.find()) {
+                return null;
+            }
+
+            for (Entry entry : entries) {
+                final int end = matcher.end(entry.group);
+                if (end == -1) {
+                    continue;
+                }
+
+                if (entry.themeGroup != -1) {
+                    result.theme = matcher.group(entry.themeGroup);
+                }
+
+                return entry.viewPath + path.substring(end);
+            }
+
+            return null;
+        }
+    }
+
+    private static class Entry {
+        final int group;
+        final int themeGroup;
+        final String viewPath;
+
+        Entry(int group, int themeGroup, String viewPath) {
+            this.group = group;
+            this.themeGroup = themeGroup;
+            this.viewPath = viewPath;
+        }
+    }
+}
@@ -5,7 +5,10 @@ import com.intellij.openapi.util.io.FileUtilRt;
 import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiFile;
-import com.intellij.psi.search.SearchScope;
+import com.intellij.psi.PsiRecursiveElementWalkingVisitor;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
 import com.intellij.psi.util.PsiTreeUtil;
 import com.jetbrains.php.PhpIndex;
 import com.jetbrains.php.lang.parser.PhpElementTypes;
@@ -27,10 +30,13 @@ import java.util.regex.Pattern;
 
 public class ViewUtil {
     private static final Set<String> ignoredVariables = getIgnoredVariables();
-    private static final Map<Project, Map<Pattern, String>> projectViewPatterns = new HashMap<>();
+    private static final Pattern parentDirectoryPattern = Pattern.compile("/([a-z0-9-]+/\\.\\./)");
 
     public static final String[] renderMethods = {"render", "renderAjax", "renderPartial"};
 
+    /**
+     * Resolves View key by file path only. Used by ViewFileIndex indexer before PSI is built, so it must not touch PSI.
+     */
     @Nullable
     public static ViewResolve resolveView(VirtualFile virtualFile, Project project) {
         final String projectPath = YiiApplicationUtils.getYiiRootPath(project);
@@ -58,19 +64,7 @@ public class ViewUtil {
             if (!path.startsWith("@app/views/")
                     && !(path.startsWith("@app/modules/") && path.contains("/views/"))
                     && !(path.startsWith("@app/widgets/") && path.contains("/views/"))) {
-                String viewPath = null;
-                for (Map.Entry<Pattern, String> entry : ViewUtil.getPatterns(project).entrySet()) {
-                    Matcher matcher = entry.getKey().matcher(path);
-                    if (matcher.find()) {
-                        viewPath = entry.getValue() + path.substring(matcher.end(1));
-                        if (matcher.groupCount() == 2) {
-                            result.theme = matcher.group(2);
-                        }
-
-                        break;
-                    }
-                }
-
+                String viewPath = ViewPathMapService.getInstance(project).mapPath(path, result);
                 if (viewPath == null) {
                     return null;
                 }
@@ -87,6 +81,15 @@ public class ViewUtil {
 
     @Nullable
     public static ViewResolve resolveView(PsiElement element) {
+        return CachedValuesManager.getCachedValue(element, () -> CachedValueProvider.Result.create(
+                resolveViewUncached(element),
+                PsiModificationTracker.MODIFICATION_COUNT,
+                Yii2SupportSettings.getInstance(element.getProject()).getModificationTracker()
+        ));
+    }
+
+    @Nullable
+    private static ViewResolve resolveViewUncached(PsiElement element) {
         String value = PhpUtil.getValue(element);
         if (value.startsWith("@")) {
             ViewResolve resolve = new ViewResolve(value);
@@ -130,62 +133,102 @@ public class ViewUtil {
 
     @NotNull
     public static Collection<String> getPhpViewVariables(PsiFile psiFile) {
+        final ViewVariablesCollector collector = new ViewVariablesCollector();
+        psiFile.accept(collector);
+
         final Set<String> result = new HashSet<>();
-        final Set<String> allVariables = new HashSet<>();
-        final Set<String> declaredVariables = new HashSet<>();
-        final Collection<Variable> viewVariables = PsiTreeUtil.findChildrenOfType(psiFile, Variable.class);
-
-        for (FunctionReference reference : PsiTreeUtil.findChildrenOfType(psiFile, FunctionReference.class)) {
-            if (reference.getNode().getElementType() == PhpElementTypes.FUNCTION_CALL && psiFile.getUseScope().equals(reference.getUseScope())) {
-                if (reference.getName() != null && reference.getName().equals("compact")) {
-                    for (PsiElement element : reference.getParameters()) {
-                        if (element instanceof StringLiteralExpression) {
-                            allVariables.add(((StringLiteralExpression) element).getContents());
-                        }
+        for (String variable : collector.allVariables) {
+            if (!collector.declaredVariables.contains(variable)) {
+                result.add(variable);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Collects file level variable declarations, usages and compact() arguments in one walk.
+     * Bodies of functions, methods and closures are skipped, only closure "use" lists are read.
+     */
+    private static class ViewVariablesCollector extends PsiRecursiveElementWalkingVisitor {
+        private final Set<String> allVariables = new HashSet<>();
+        private final Set<String> declaredVariables = new HashSet<>();
+        private final Set<String> usedBeforeDeclaration = new HashSet<>();
+
+        @Override
+        public void visitElement(PsiElement element) {
+            if (element instanceof Function) {
+                final PhpUseList useList = PsiTreeUtil.getChildOfType(element, PhpUseList.class);
+                if (useList != null) {
+                    for (Variable variable : PsiTreeUtil.findChildrenOfType(useList, Variable.class)) {
+                        visitUsage(variable);
                     }
                 }
+                return;
             }
+
+            if (element instanceof Variable) {
+                visitVariable((Variable) element);
+            } else if (element instanceof FunctionReference) {
+                visitFunctionReference((FunctionReference) element);
+            }
+
+            super.visitElement(element);
         }
 
-        final SearchScope fileScope = psiFile.getUseScope();
-        final Set<String> usedBeforeDeclaration = new HashSet<>();
-        for (Variable variable : viewVariables) {
-            String variableName = variable.getName();
+        private void visitVariable(Variable variable) {
+            final PsiElement parent = variable.getParent();
             if (variable.isDeclaration()
-                    && fileScope.equals(variable.getUseScope())
-                    && !(variable.getParent() instanceof PhpUseList)
-                    && !(variable.getParent() instanceof UnaryExpression)
-                    && !(variable.getParent() instanceof SelfAssignmentExpression)
-                    && !usedBeforeDeclaration.contains(variableName)) {
-                declaredVariables.add(variableName);
-            } else {
-                if (!ignoredVariables.contains(variableName)) {
-                    if (fileScope.equals(variable.getUseScope()) || variable.getParent() instanceof PhpUseList) {
-                        if (variable.getName().equals("") && variable.getParent() instanceof StringLiteralExpression) {
-                            Variable inlineVariable = PsiTreeUtil.findChildOfType(variable, Variable.class);
-                            if (inlineVariable != null) {
-                                allVariables.add(inlineVariable.getName());
-                                usedBeforeDeclaration.add(variableName);
-                            }
-                        } else {
-                            allVariables.add(variableName);
-                            usedBeforeDeclaration.add(variableName);
-                        }
-                    }
-                }
+                    && !(parent instanceof UnaryExpression)
+                    && !(parent instanceof SelfAssignmentExpression)
+                    && !usedBeforeDeclaration.contains(variable.getName())) {
+                declaredVariables.add(variable.getName());
+                return;
             }
+
+            visitUsage(variable);
         }
 
-        for (String variable : allVariables) {
-            if (!declaredVariables.contains(variable)) {
-                result.add(variable);
+        private void visitUsage(Variable variable) {
+            final String variableName = variable.getName();
+            if (ignoredVariables.contains(variableName)) {
+                return;
+            }
+
+            if (variableName.equals("") && variable.getParent() instanceof StringLiteralExpression) {
+                Variable inlineVariable = PsiTreeUtil.findChildOfType(variable, Variable.class);
+                if (inlineVariable != null) {
+                    allVariables.add(inlineVariable.getName());
+                    usedBeforeDeclaration.add(variableName);
+                }
+            } else {
+                allVariables.add(variableName);
+                usedBeforeDeclaration.add(variableName);
             }
         }
 
-        return result;
+        private void visitFunctionReference(FunctionReference reference) {
+            if (reference.getNode().getElementType() != PhpElementTypes.FUNCTION_CALL
+                    || !"compact".equals(reference.getName())) {
+                return;
+            }
+
+            for (PsiElement element : reference.getParameters()) {
+                if (element instanceof StringLiteralExpression) {
+                    allVariables.add(((StringLiteralExpression) element).getContents());
+                }
+            }
+        }
     }
 
     public static boolean isValidRenderMethod(MethodReference methodReference) {
+        return CachedValuesManager.getCachedValue(methodReference, () -> CachedValueProvider.Result.create(
+                isValidRenderMethodUncached(methodReference),
+                PsiModificationTracker.MODIFICATION_COUNT
+        ));
+    }
+
+    private static boolean isValidRenderMethodUncached(MethodReference methodReference) {
         final PhpClass clazz = ClassUtils.getPhpClassByCallChain(methodReference);
         if (clazz == null) {
             return false;
@@ -219,26 +262,6 @@ public class ViewUtil {
         return result;
     }
 
-    public static void resetPathMapPatterns(Project project) {
-        projectViewPatterns.remove(project);
-    }
-
-    @NotNull
-    private static Map<Pattern, String> getPatterns(Project project) {
-        Map<Pattern, String> patterns = projectViewPatterns.get(project);
-        if (patterns == null) {
-            patterns = new LinkedHashMap<>();
-            Yii2SupportSettings settings = Yii2SupportSettings.getInstance(project);
-            for (Map.Entry<String, String> entry : settings.viewPathMap.entrySet()) {
-                String patternString = "^(" + entry.getKey().replace("*", "([\\w-]+)") + ").+";
-                Pattern pattern = Pattern.compile(patternString);
-                patterns.put(pattern, entry.getValue());
-            }
-            projectViewPatterns.put(project, patterns);
-        }
-        return patterns;
-    }
-
     @NotNull
     private static ViewResolve resolveViewFromController(PhpClass clazz, String value) {
         ViewResolve result = new ViewResolve(ViewResolveFrom.Controller);
@@ -345,11 +368,14 @@ public class ViewUtil {
     }
 
     private static String normalizePath(String path) {
-        Pattern pattern = Pattern.compile("/([a-z0-9-]+/\\.\\./)");
-        Matcher matcher = pattern.matcher(path);
+        if (!path.contains("/../")) {
+            return path;
+        }
+
+        Matcher matcher = parentDirectoryPattern.matcher(path);
         while (matcher.find()) {
-            path = pattern.matcher(path).replaceAll("/");
-            matcher = pattern.matcher(path);
+            path = matcher.replaceAll("/");
+            matcher = parentDirectoryPattern.matcher(path);
         }
         return path;
     }
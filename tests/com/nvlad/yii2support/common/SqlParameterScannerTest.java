@@ -0,0 +1,45 @@
+package com.nvlad.yii2support.common;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class SqlParameterScannerTest {
+    @Test
+    public void parameters() {
+        assertArrayEquals(new String[]{":id", ":status"},
+                SqlParameterScanner.getParameters("id = :id AND status = :status OR parent_id = :id", true));
+
+        assertArrayEquals(new String[]{"id", "status"},
+                SqlParameterScanner.getParameters("id = :id AND status = :status", false));
+
+        assertArrayEquals(new String[]{":a"}, SqlParameterScanner.getParameters("x = :a", true));
+    }
+
+    @Test
+    public void skipsQuotedTextAndComments() {
+        assertArrayEquals(new String[]{":name"},
+                SqlParameterScanner.getParameters("name = :name AND time > '12:30' AND note = \"a:b\" AND `c:d` = 1", true));
+
+        assertArrayEquals(new String[]{":id"},
+                SqlParameterScanner.getParameters("id = :id -- AND x = :x\n/* :y */", true));
+
+        assertArrayEquals(new String[]{":v"},
+                SqlParameterScanner.getParameters("note = 'it\\'s :not' AND v = :v", true));
+    }
+
+    @Test
+    public void skipsQuotedNames() {
+        assertArrayEquals(new String[]{":id"},
+                SqlParameterScanner.getParameters("{{%user:x}}.[[a:b]] = :id", true));
+    }
+
+    @Test
+    public void skipsCastsAndPatterns() {
+        assertArrayEquals(new String[0], SqlParameterScanner.getParameters("created::date = now()", true));
+
+        assertArrayEquals(new String[0], SqlParameterScanner.getParameters("name ~ '[[:alpha:]]' OR x[:alpha:]", true));
+
+        assertArrayEquals(new String[0], SqlParameterScanner.getParameters("time = 12:30", true));
+    }
+}
@@ -0,0 +1,37 @@
+package com.nvlad.yii2support.common;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class UrlUtilsTest {
+    @Test
+    public void controllerId() {
+        assertEquals("site", UrlUtils.getControllerId("\\app\\controllers\\SiteController"));
+        assertEquals("room-controller", UrlUtils.getControllerId("\\app\\controllers\\RoomControllerController"));
+        assertEquals("user-profile", UrlUtils.getControllerId("\\UserProfileController"));
+    }
+
+    @Test
+    public void controllerIdWithPrefix() {
+        assertEquals("admin/default", UrlUtils.getControllerId("\\app\\modules\\admin\\controllers\\DefaultController"));
+        assertEquals("admin/user/profile", UrlUtils.getControllerId("\\app\\modules\\admin\\modules\\user\\controllers\\ProfileController"));
+        assertEquals("api/v1/post", UrlUtils.getControllerId("\\backend\\controllers\\api\\v1\\PostController"));
+    }
+
+    @Test
+    public void notController() {
+        assertNull(UrlUtils.getControllerId("\\yii\\web\\Controller"));
+        assertNull(UrlUtils.getControllerId("\\app\\models\\User"));
+        assertNull(UrlUtils.getControllerId("\\yii\\rest\\ActiveController"));
+    }
+
+    @Test
+    public void actionId() {
+        assertEquals("index", UrlUtils.getActionId("actionIndex"));
+        assertEquals("car-controller", UrlUtils.getActionId("actionCarController"));
+        assertNull(UrlUtils.getActionId("actions"));
+        assertNull(UrlUtils.getActionId("action"));
+        assertNull(UrlUtils.getActionId("beforeAction"));
+    }
+}
@@ -0,0 +1,64 @@
+package com.nvlad.yii2support.views;
+
+import com.intellij.psi.PsiFile;
+import com.intellij.testFramework.fixtures.BasePlatformTestCase;
+import com.nvlad.yii2support.views.util.ViewUtil;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+public class ViewVariablesTests extends BasePlatformTestCase {
+    @Override
+    protected String getTestDataPath() {
+        return "tests/com/nvlad/yii2support/views/fixtures";
+    }
+
+    @Test
+    public void testViewVariables() {
+        PsiFile psiFile = myFixture.configureByFile("viewVariables.php");
+        Set<String> expected = new HashSet<>(Arrays.asList("model", "user", "counter", "prefix", "list", "extra"));
+
+        assertEquals(expected, new HashSet<>(ViewUtil.getPhpViewVariables(psiFile)));
+    }
+
+    @Test
+    public void testGridViewTemplateVariables() {
+        PsiFile psiFile = myFixture.configureByFile("index.php");
+        Set<String> expected = new HashSet<>(Arrays.asList("searchModel", "dataProvider", "statuses"));
+
+        assertEquals(expected, new HashSet<>(ViewUtil.getPhpViewVariables(psiFile)));
+    }
+
+    @Test
+    public void testFormTemplateVariables() {
+        PsiFile psiFile = myFixture.configureByFile("_form.php");
+        Set<String> expected = new HashSet<>(Arrays.asList("model", "categories", "tags", "selected"));
+
+        assertEquals(expected, new HashSet<>(ViewUtil.getPhpViewVariables(psiFile)));
+    }
+
+    /**
+     * Benchmark over the template fixtures, time is reported and not asserted.
+     */
+    @Test
+    public void testViewVariablesBenchmark() {
+        PsiFile[] templates = myFixture.configureByFiles("viewVariables.php", "index.php", "_form.php");
+        for (PsiFile template : templates) {
+            ViewUtil.getPhpViewVariables(template);
+        }
+
+        final int iterations = 1000;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            for (PsiFile template : templates) {
+                ViewUtil.getPhpViewVariables(template);
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        System.out.println("View variables of " + templates.length + " templates x " + iterations + ": "
+                + elapsed / 1_000_000 + " ms");
+    }
+}
@@ -0,0 +1,18 @@
+<?php
+/* @var $this yii\web\View */
+
+$title = $model->name;
+echo $title;
+echo "Hello {$user}";
+$counter++;
+
+$items = array_map(function ($item) use ($prefix) {
+    $local = $item . $prefix;
+    return $local . $hidden;
+}, $list);
+
+function helper($argument) {
+    return $argument . $notAViewVariable;
+}
+
+echo $this->render('_partial', compact('extra'));